@@ -7,9 +7,13 @@ import net.fliuxx.questplus.config.Messages;
 import net.fliuxx.questplus.database.DatabaseManager;
 import net.fliuxx.questplus.integration.LuckPermsIntegration;
 import net.fliuxx.questplus.integration.PlaceholderAPIExpansion;
+import net.fliuxx.questplus.listeners.MovementTracker;
 import net.fliuxx.questplus.listeners.PlayerListener;
+import net.fliuxx.questplus.listeners.QuestEventRegistry;
 import net.fliuxx.questplus.listeners.QuestListener;
 import net.fliuxx.questplus.quest.QuestManager;
+import net.fliuxx.questplus.quest.region.StructureLocator;
+import net.fliuxx.questplus.quest.types.SurvivalTicker;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -29,6 +33,9 @@ public class QuestPlus extends JavaPlugin {
     private Messages messages;
     private DatabaseManager databaseManager;
     private QuestManager questManager;
+    private QuestEventRegistry eventRegistry;
+    private StructureLocator structureLocator;
+    private SurvivalTicker survivalTicker;
     private LuckPermsIntegration luckPermsIntegration;
     
     @Override
@@ -48,8 +55,11 @@ public class QuestPlus extends JavaPlugin {
             databaseManager.initialize();
             
             // Initialize quest manager
+            eventRegistry = new QuestEventRegistry(this);
             questManager = new QuestManager(this);
             questManager.loadQuests();
+            structureLocator = new StructureLocator(this);
+            survivalTicker = new SurvivalTicker(this);
             
             // Initialize integrations
             initializeIntegrations();
@@ -74,6 +84,7 @@ public class QuestPlus extends JavaPlugin {
         
         // Save all data
         if (questManager != null) {
+            questManager.flushPendingProgress();
             questManager.saveAllProgress();
         }
         
@@ -107,8 +118,9 @@ public class QuestPlus extends JavaPlugin {
     }
     
     private void registerListeners() {
-        Bukkit.getPluginManager().registerEvents(new QuestListener(this), this);
+        new QuestListener(this); // Registers its handlers on demand through the event registry
         Bukkit.getPluginManager().registerEvents(new PlayerListener(this), this);
+        Bukkit.getPluginManager().registerEvents(new MovementTracker(this), this);
     }
     
     public void reload() {
@@ -143,6 +155,18 @@ public class QuestPlus extends JavaPlugin {
         return questManager;
     }
     
+    public QuestEventRegistry getEventRegistry() {
+        return eventRegistry;
+    }
+    
+    public StructureLocator getStructureLocator() {
+        return structureLocator;
+    }
+    
+    public SurvivalTicker getSurvivalTicker() {
+        return survivalTicker;
+    }
+    
     public LuckPermsIntegration getLuckPermsIntegration() {
         return luckPermsIntegration;
     }
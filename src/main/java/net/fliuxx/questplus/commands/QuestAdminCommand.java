@@ -1,6 +1,7 @@
 package net.fliuxx.questplus.commands;
 
 import net.fliuxx.questplus.QuestPlus;
+import net.fliuxx.questplus.database.QuestDatabase;
 import net.fliuxx.questplus.quest.Quest;
 import net.fliuxx.questplus.quest.QuestProgress;
 import net.kyori.adventure.text.Component;
@@ -154,19 +155,14 @@ public class QuestAdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        List<QuestProgress> playerProgress = plugin.getQuestManager().getPlayerProgress(target);
-        QuestProgress progress = playerProgress.stream()
-                .filter(p -> p.getQuestId().equals(questId))
-                .findFirst()
-                .orElse(null);
+        QuestProgress progress = plugin.getQuestManager().getQuestProgress(target, questId);
         
         if (progress == null) {
             sender.sendMessage(Component.text("Player doesn't have this quest.").color(NamedTextColor.RED));
             return;
         }
         
-        playerProgress.remove(progress);
-        plugin.getDatabaseManager().getQuestDatabase().deleteQuestProgress(target.getUniqueId(), questId);
+        plugin.getQuestManager().removeQuestProgress(target, progress);
         
         Quest quest = plugin.getQuestManager().getQuest(questId);
         String questName = quest != null ? quest.getName() : questId;
@@ -182,11 +178,7 @@ public class QuestAdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        List<QuestProgress> playerProgress = plugin.getQuestManager().getPlayerProgress(target);
-        QuestProgress progress = playerProgress.stream()
-                .filter(p -> p.getQuestId().equals(questId) && !p.isCompleted())
-                .findFirst()
-                .orElse(null);
+        QuestProgress progress = plugin.getQuestManager().getActiveQuest(target, questId);
         
         if (progress == null) {
             sender.sendMessage(Component.text("Player doesn't have this active quest.").color(NamedTextColor.RED));
@@ -196,8 +188,9 @@ public class QuestAdminCommand implements CommandExecutor, TabCompleter {
         progress.setProgress(progress.getTarget());
         progress.setCompleted(true);
         progress.setCompletedAt(System.currentTimeMillis());
+        plugin.getQuestManager().refreshQuestProgress(target, progress);
         
-        plugin.getDatabaseManager().getQuestDatabase().saveQuestProgress(progress);
+        plugin.getDatabaseManager().getPersistenceQueue().save(progress);
         
         Quest quest = plugin.getQuestManager().getQuest(questId);
         String questName = quest != null ? quest.getName() : questId;
@@ -221,11 +214,7 @@ public class QuestAdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        List<QuestProgress> playerProgress = plugin.getQuestManager().getPlayerProgress(target);
-        QuestProgress progress = playerProgress.stream()
-                .filter(p -> p.getQuestId().equals(questId) && !p.isCompleted())
-                .findFirst()
-                .orElse(null);
+        QuestProgress progress = plugin.getQuestManager().getActiveQuest(target, questId);
         
         if (progress == null) {
             sender.sendMessage(Component.text("Player doesn't have this active quest.").color(NamedTextColor.RED));
@@ -233,7 +222,7 @@ public class QuestAdminCommand implements CommandExecutor, TabCompleter {
         }
         
         progress.setProgress(Math.max(0, Math.min(amount, progress.getTarget())));
-        plugin.getDatabaseManager().getQuestDatabase().saveQuestProgress(progress);
+        plugin.getDatabaseManager().getPersistenceQueue().save(progress);
         
         Quest quest = plugin.getQuestManager().getQuest(questId);
         String questName = quest != null ? quest.getName() : questId;
@@ -248,11 +237,7 @@ public class QuestAdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        List<QuestProgress> playerProgress = plugin.getQuestManager().getPlayerProgress(target);
-        QuestProgress progress = playerProgress.stream()
-                .filter(p -> p.getQuestId().equals(questId))
-                .findFirst()
-                .orElse(null);
+        QuestProgress progress = plugin.getQuestManager().getQuestProgress(target, questId);
         
         if (progress == null) {
             sender.sendMessage(Component.text("Player doesn't have this quest.").color(NamedTextColor.RED));
@@ -264,8 +249,9 @@ public class QuestAdminCommand implements CommandExecutor, TabCompleter {
         progress.setClaimed(false);
         progress.setCompletedAt(null);
         progress.setStartedAt(System.currentTimeMillis());
+        plugin.getQuestManager().refreshQuestProgress(target, progress);
         
-        plugin.getDatabaseManager().getQuestDatabase().saveQuestProgress(progress);
+        plugin.getDatabaseManager().getPersistenceQueue().save(progress);
         
         Quest quest = plugin.getQuestManager().getQuest(questId);
         String questName = quest != null ? quest.getName() : questId;
@@ -317,27 +303,27 @@ public class QuestAdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        List<QuestProgress> playerProgress = plugin.getDatabaseManager().getQuestDatabase().getPlayerProgress(target.getUniqueId());
-        
-        sender.sendMessage(Component.text("=== Quests for " + target.getName() + " ===").color(NamedTextColor.GOLD));
-        
-        List<QuestProgress> active = playerProgress.stream().filter(p -> !p.isCompleted()).toList();
-        List<QuestProgress> completed = playerProgress.stream().filter(QuestProgress::isCompleted).toList();
-        
-        sender.sendMessage(Component.text("Active Quests:").color(NamedTextColor.YELLOW));
-        for (QuestProgress progress : active) {
-            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestId());
-            String questName = quest != null ? quest.getName() : progress.getQuestId();
-            sender.sendMessage(Component.text("• " + questName + " - " + progress.getProgress() + "/" + progress.getTarget()).color(NamedTextColor.WHITE));
-        }
-        
-        sender.sendMessage(Component.text("Completed Quests:").color(NamedTextColor.GREEN));
-        for (QuestProgress progress : completed) {
-            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestId());
-            String questName = quest != null ? quest.getName() : progress.getQuestId();
-            String status = progress.isClaimed() ? " (Claimed)" : " (Unclaimed)";
-            sender.sendMessage(Component.text("• " + questName + status).color(NamedTextColor.WHITE));
-        }
+        plugin.getDatabaseManager().getQuestDatabase().getPlayerProgressAsync(target.getUniqueId()).thenAccept(playerProgress -> {
+            sender.sendMessage(Component.text("=== Quests for " + target.getName() + " ===").color(NamedTextColor.GOLD));
+            
+            List<QuestProgress> active = playerProgress.stream().filter(p -> !p.isCompleted()).toList();
+            List<QuestProgress> completed = playerProgress.stream().filter(QuestProgress::isCompleted).toList();
+            
+            sender.sendMessage(Component.text("Active Quests:").color(NamedTextColor.YELLOW));
+            for (QuestProgress progress : active) {
+                Quest quest = plugin.getQuestManager().getQuest(progress.getQuestOrdinal());
+                String questName = quest != null ? quest.getName() : progress.getQuestId();
+                sender.sendMessage(Component.text("• " + questName + " - " + progress.getProgress() + "/" + progress.getTarget()).color(NamedTextColor.WHITE));
+            }
+            
+            sender.sendMessage(Component.text("Completed Quests:").color(NamedTextColor.GREEN));
+            for (QuestProgress progress : completed) {
+                Quest quest = plugin.getQuestManager().getQuest(progress.getQuestOrdinal());
+                String questName = quest != null ? quest.getName() : progress.getQuestId();
+                String status = progress.isClaimed() ? " (Claimed)" : " (Unclaimed)";
+                sender.sendMessage(Component.text("• " + questName + status).color(NamedTextColor.WHITE));
+            }
+        });
     }
     
     private void handleGlobalStats(CommandSender sender) {
@@ -354,12 +340,13 @@ public class QuestAdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        int activeCount = plugin.getDatabaseManager().getQuestDatabase().getActiveQuestCount(target.getUniqueId());
-        int completedCount = plugin.getDatabaseManager().getQuestDatabase().getCompletedQuestCount(target.getUniqueId());
-        
-        sender.sendMessage(Component.text("=== Quest Statistics for " + target.getName() + " ===").color(NamedTextColor.GOLD));
-        sender.sendMessage(Component.text("Active Quests: " + activeCount).color(NamedTextColor.YELLOW));
-        sender.sendMessage(Component.text("Completed Quests: " + completedCount).color(NamedTextColor.GREEN));
+        QuestDatabase database = plugin.getDatabaseManager().getQuestDatabase();
+        database.getActiveQuestCountAsync(target.getUniqueId())
+                .thenAcceptBoth(database.getCompletedQuestCountAsync(target.getUniqueId()), (activeCount, completedCount) -> {
+                    sender.sendMessage(Component.text("=== Quest Statistics for " + target.getName() + " ===").color(NamedTextColor.GOLD));
+                    sender.sendMessage(Component.text("Active Quests: " + activeCount).color(NamedTextColor.YELLOW));
+                    sender.sendMessage(Component.text("Completed Quests: " + completedCount).color(NamedTextColor.GREEN));
+                });
     }
     
     private void handlePurgePlayer(CommandSender sender, String playerName) {
@@ -369,13 +356,22 @@ public class QuestAdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        // Remove all player progress
-        List<QuestProgress> playerProgress = plugin.getDatabaseManager().getQuestDatabase().getPlayerProgress(target.getUniqueId());
-        for (QuestProgress progress : playerProgress) {
-            plugin.getDatabaseManager().getQuestDatabase().deleteQuestProgress(target.getUniqueId(), progress.getQuestId());
-        }
-        
-        sender.sendMessage(Component.text("Purged all quest data for " + target.getName()).color(NamedTextColor.GREEN));
+        // Remove all player progress, including rows still queued to be written
+        plugin.getQuestManager().discardRetainedProgress(target.getUniqueId());
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            if (!plugin.getDatabaseManager().getPersistenceQueue().awaitPlayer(target.getUniqueId())) {
+                Bukkit.getScheduler().runTask(plugin, () ->
+                        sender.sendMessage(Component.text("Queued quest changes for " + target.getName() + " could not be written, try again later.").color(NamedTextColor.RED)));
+                return;
+            }
+            List<QuestProgress> playerProgress = plugin.getDatabaseManager().getQuestDatabase().getPlayerProgress(target.getUniqueId());
+            for (QuestProgress progress : playerProgress) {
+                plugin.getDatabaseManager().getPersistenceQueue().delete(progress);
+            }
+            
+            Bukkit.getScheduler().runTask(plugin, () ->
+                    sender.sendMessage(Component.text("Purged all quest data for " + target.getName()).color(NamedTextColor.GREEN)));
+        });
     }
     
     private void showAdminHelp(CommandSender sender) {
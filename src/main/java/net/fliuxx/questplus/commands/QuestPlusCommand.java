@@ -122,11 +122,7 @@ public class QuestPlusCommand implements CommandExecutor, TabCompleter {
     }
     
     private void handleAbandonQuest(Player player, String questId) {
-        List<QuestProgress> playerProgress = plugin.getQuestManager().getPlayerProgress(player);
-        QuestProgress progress = playerProgress.stream()
-                .filter(p -> p.getQuestId().equals(questId) && !p.isCompleted())
-                .findFirst()
-                .orElse(null);
+        QuestProgress progress = plugin.getQuestManager().getActiveQuest(player, questId);
         
         if (progress == null) {
             plugin.getMessages().sendMessage(player, "quest-not-active");
@@ -134,8 +130,7 @@ public class QuestPlusCommand implements CommandExecutor, TabCompleter {
         }
         
         // Remove from player progress and database
-        playerProgress.remove(progress);
-        plugin.getDatabaseManager().getQuestDatabase().deleteQuestProgress(player.getUniqueId(), questId);
+        plugin.getQuestManager().removeQuestProgress(player, progress);
         
         Quest quest = plugin.getQuestManager().getQuest(questId);
         String questName = quest != null ? quest.getName() : questId;
@@ -148,10 +143,7 @@ public class QuestPlusCommand implements CommandExecutor, TabCompleter {
     }
     
     private void showActiveQuests(Player player) {
-        List<QuestProgress> activeQuests = plugin.getQuestManager().getPlayerProgress(player)
-                .stream()
-                .filter(p -> !p.isCompleted())
-                .toList();
+        List<QuestProgress> activeQuests = plugin.getQuestManager().getPlayerState(player).getActiveQuests();
         
         if (activeQuests.isEmpty()) {
             player.sendMessage(Component.text("You have no active quests.").color(NamedTextColor.YELLOW));
@@ -160,7 +152,7 @@ public class QuestPlusCommand implements CommandExecutor, TabCompleter {
         
         player.sendMessage(Component.text("=== Active Quests ===").color(NamedTextColor.GREEN));
         for (QuestProgress progress : activeQuests) {
-            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestId());
+            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestOrdinal());
             if (quest != null) {
                 Component message = Component.text("• " + quest.getName() + " - ")
                         .color(NamedTextColor.WHITE)
@@ -190,10 +182,7 @@ public class QuestPlusCommand implements CommandExecutor, TabCompleter {
     }
     
     private void showCompletedQuests(Player player) {
-        List<QuestProgress> completedQuests = plugin.getQuestManager().getPlayerProgress(player)
-                .stream()
-                .filter(QuestProgress::isCompleted)
-                .toList();
+        List<QuestProgress> completedQuests = plugin.getQuestManager().getPlayerState(player).getCompletedQuests();
         
         if (completedQuests.isEmpty()) {
             player.sendMessage(Component.text("You have no completed quests.").color(NamedTextColor.YELLOW));
@@ -202,7 +191,7 @@ public class QuestPlusCommand implements CommandExecutor, TabCompleter {
         
         player.sendMessage(Component.text("=== Completed Quests ===").color(NamedTextColor.GREEN));
         for (QuestProgress progress : completedQuests) {
-            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestId());
+            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestOrdinal());
             if (quest != null) {
                 Component message = Component.text("• " + quest.getName())
                         .color(progress.isClaimed() ? NamedTextColor.GRAY : NamedTextColor.GREEN);
@@ -79,6 +79,14 @@ public class ConfigManager {
         return config.getInt("database.pool-size", 10);
     }
     
+    public long getWriteBehindDelay() {
+        return Math.max(0, config.getLong("database.write-behind.delay", 1000));
+    }
+    
+    public int getWriteBehindMaxPending() {
+        return Math.max(100, config.getInt("database.write-behind.max-pending", 10000));
+    }
+    
     // Quest settings
     public int getDefaultQuestLimit() {
         return config.getInt("quest-limits.default", 3);
@@ -110,6 +118,44 @@ public class ConfigManager {
         return config.getInt("auto-save.interval", 300); // 5 minutes default
     }
     
+    // Notification settings
+    public boolean isProgressNotificationsEnabled() {
+        return config.getBoolean("notifications.progress-notifications", true);
+    }
+    
+    public int getProgressNotificationInterval() {
+        return Math.max(1, config.getInt("notifications.progress-interval", 5));
+    }
+    
+    public boolean isTimeWarningsEnabled() {
+        return config.getBoolean("notifications.time-warnings", true);
+    }
+    
+    public List<Integer> getTimeWarningThresholds() {
+        return config.getIntegerList("notifications.time-warning-thresholds");
+    }
+    
+    // Performance settings
+    public boolean isCachePlayerData() {
+        return config.getBoolean("performance.cache-player-data", true);
+    }
+    
+    public int getCacheTimeout() {
+        return Math.max(0, config.getInt("performance.cache-timeout", 30)); // Minutes
+    }
+    
+    public int getMovementFlushInterval() {
+        return Math.max(1, config.getInt("performance.movement-flush-interval", 20)); // 1 second default
+    }
+    
+    public int getStructureLookupsPerTick() {
+        return Math.max(1, config.getInt("performance.structure-lookups-per-tick", 1));
+    }
+    
+    public int getStructureCacheSize() {
+        return Math.max(16, config.getInt("performance.structure-cache-size", 4096));
+    }
+    
     // Quest configuration access
     public FileConfiguration getQuestsConfig() {
         return questsConfig;
@@ -15,7 +15,10 @@ public class DatabaseManager {
     
     private final QuestPlus plugin;
     private HikariDataSource dataSource;
+    private SqlDialect dialect;
     private QuestDatabase questDatabase;
+    private PersistenceQueue persistenceQueue;
+    private ProgressLoader progressLoader;
     
     public DatabaseManager(QuestPlus plugin) {
         this.plugin = plugin;
@@ -26,13 +29,20 @@ public class DatabaseManager {
         
         HikariConfig config = new HikariConfig();
         
-        switch (databaseType) {
-            case "mysql" -> setupMySQL(config);
-            case "sqlite" -> setupSQLite(config);
+        dialect = switch (databaseType) {
+            case "mysql" -> SqlDialect.MYSQL;
+            case "h2" -> SqlDialect.H2;
+            case "sqlite" -> SqlDialect.SQLITE;
             default -> {
                 plugin.getLogger().warning("Unknown database type: " + databaseType + ". Using SQLite.");
-                setupSQLite(config);
+                yield SqlDialect.SQLITE;
             }
+        };
+        
+        switch (dialect) {
+            case MYSQL -> setupMySQL(config);
+            case H2 -> setupH2(config);
+            case SQLITE -> setupSQLite(config);
         }
         
         // Common settings
@@ -45,10 +55,15 @@ public class DatabaseManager {
         dataSource = new HikariDataSource(config);
         
         // Initialize quest database
-        questDatabase = new QuestDatabase(this);
+        questDatabase = new QuestDatabase(plugin, this);
         questDatabase.createTables();
         
-        plugin.getLogger().info("Database connection established using " + databaseType.toUpperCase());
+        // Write changes left over from an unclean shutdown before any progress is loaded
+        persistenceQueue = new PersistenceQueue(plugin, this);
+        persistenceQueue.replayJournal();
+        progressLoader = new ProgressLoader(plugin, this);
+        
+        plugin.getLogger().info("Database connection established using " + dialect.getDisplayName());
     }
     
     private void setupMySQL(HikariConfig config) {
@@ -86,15 +101,44 @@ public class DatabaseManager {
         config.setMaximumPoolSize(1); // SQLite doesn't support multiple writers
     }
     
+    private void setupH2(HikariConfig config) {
+        String dbPath = plugin.getDataFolder().getAbsolutePath() + "/questplus";
+        // Lower case names keep table lookups the same as on the other backends, VALUE is a column of quest_schema
+        config.setJdbcUrl("jdbc:h2:file:" + dbPath + ";DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE");
+        config.setDriverClassName("org.h2.Driver");
+    }
+    
     public Connection getConnection() throws SQLException {
         return dataSource.getConnection();
     }
     
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+    
     public QuestDatabase getQuestDatabase() {
         return questDatabase;
     }
     
+    public PersistenceQueue getPersistenceQueue() {
+        return persistenceQueue;
+    }
+    
+    public ProgressLoader getProgressLoader() {
+        return progressLoader;
+    }
+    
     public void close() {
+        if (progressLoader != null) {
+            progressLoader.close();
+        }
+        if (persistenceQueue != null) {
+            persistenceQueue.drain();
+        }
+        if (questDatabase != null) {
+            questDatabase.close();
+        }
+        
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             plugin.getLogger().info("Database connection closed.");
@@ -0,0 +1,388 @@
+package net.fliuxx.questplus.database;
+
+import net.fliuxx.questplus.QuestPlus;
+import net.fliuxx.questplus.quest.QuestProgress;
+import org.bukkit.Bukkit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Write-behind queue for quest progress and statistics.
+ * Changes are queued per player and quest, so a quest changed several times before the next
+ * write is written once with its latest state, and are written in one transaction on a dedicated
+ * thread. A completion travels with its progress, so the progress row, the statistics and the
+ * player's counters are always written together. Failed writes are kept and retried with backoff. Changes that cannot be written when
+ * the plugin shuts down are kept in a journal file and replayed on the next start.
+ */
+public class PersistenceQueue {
+    
+    private static final long MAX_RETRY_DELAY_MILLIS = 30000L;
+    private static final long DRAIN_TIMEOUT_SECONDS = 30L;
+    private static final String JOURNAL_FILE = "pending-writes.journal";
+    
+    private final QuestPlus plugin;
+    private final DatabaseManager databaseManager;
+    private final Map<Key, Pending> pending; // Latest change per player and quest
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean flushScheduled;
+    private final long delayMillis;
+    private final int maxPending;
+    private final File journalFile;
+    private int failures; // Executor thread only
+    
+    PersistenceQueue(QuestPlus plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.pending = new ConcurrentHashMap<>();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "QuestPlus Persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flushScheduled = new AtomicBoolean();
+        this.delayMillis = plugin.getConfigManager().getWriteBehindDelay();
+        this.maxPending = plugin.getConfigManager().getWriteBehindMaxPending();
+        this.journalFile = new File(plugin.getDataFolder(), JOURNAL_FILE);
+    }
+    
+    /**
+     * Queues the current state of a quest progress to be written, replacing any queued change to it
+     */
+    public void save(QuestProgress progress) {
+        enqueue(progress, new Pending(progress, false, List.of()));
+    }
+    
+    /**
+     * Queues the deletion of a quest progress row, replacing any queued change to it
+     */
+    public void delete(QuestProgress progress) {
+        enqueue(progress, new Pending(progress, true, List.of()));
+    }
+    
+    /**
+     * Queues a just completed quest progress together with its completion for the player's statistics
+     */
+    public void complete(QuestProgress progress) {
+        long completedAt = progress.getCompletedAt();
+        Completion completion = new Completion(completedAt - progress.getStartedAt(), completedAt);
+        enqueue(progress, new Pending(progress, false, List.of(completion)));
+    }
+    
+    /**
+     * Writes the player's queued changes before their progress is read back, blocks the calling thread.
+     * Always waits for the writer thread, since a write already running may hold the player's changes.
+     * @param playerUuid The player's UUID
+     * @return Whether all of the player's changes are written, false if a write failed or timed out
+     */
+    public boolean awaitPlayer(UUID playerUuid) {
+        Runnable task = hasPending(playerUuid) ? this::flush : () -> {};
+        return await(executor.submit(task)) && !hasPending(playerUuid);
+    }
+    
+    private boolean hasPending(UUID playerUuid) {
+        return pending.keySet().stream().anyMatch(key -> key.playerUuid().equals(playerUuid));
+    }
+    
+    /**
+     * Writes everything still queued and stops the writer thread, called when the plugin is disabled.
+     * Changes that cannot be written are kept in the journal.
+     */
+    public void drain() {
+        try {
+            await(executor.submit(this::flush));
+        } finally {
+            // Drop retries scheduled by a failed write, what is left goes to the journal
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        if (!pending.isEmpty()) {
+            writeJournal();
+        }
+    }
+    
+    private void enqueue(QuestProgress progress, Pending change) {
+        // Completions still queued are kept when the progress changes again
+        pending.merge(new Key(progress.getPlayerUuid(), progress.getQuestOrdinal()), change, Pending::then);
+        
+        if (pending.size() < maxPending) {
+            scheduleFlush(delayMillis);
+            return;
+        }
+        
+        // Over the limit, write at once; background tasks wait so they cannot outpace the writer
+        scheduleFlush(0);
+        if (!Bukkit.isPrimaryThread() && !isWriterThread()) {
+            await(executor.submit(() -> {}));
+        }
+    }
+    
+    private void scheduleFlush(long delay) {
+        if (flushScheduled.compareAndSet(false, true) || delay == 0) {
+            executor.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void flush() {
+        flushScheduled.set(false);
+        
+        List<QuestProgress> saves = new ArrayList<>();
+        List<QuestProgress> deletes = new ArrayList<>();
+        List<Map.Entry<Key, Pending>> taken = new ArrayList<>();
+        Map<UUID, Integer> completedByPlayer = new HashMap<>(); // Every player with a row to write
+        for (Map.Entry<Key, Pending> entry : pending.entrySet()) {
+            // Only take the change that was read, a newer one stays queued
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                taken.add(entry);
+                Pending change = entry.getValue();
+                if (change.delete()) {
+                    deletes.add(change.progress());
+                } else if (change.progress().isDirty()) {
+                    saves.add(change.progress());
+                } else if (change.completions().isEmpty()) {
+                    continue;
+                }
+                completedByPlayer.merge(entry.getKey().playerUuid(), change.completions().size(), Integer::sum);
+            }
+        }
+        
+        if (completedByPlayer.isEmpty()) return;
+        
+        QuestDatabase database = databaseManager.getQuestDatabase();
+        int[] versions;
+        try (Connection connection = databaseManager.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                versions = database.writeProgress(connection, saves);
+                database.deleteProgress(connection, deletes);
+                for (Map.Entry<Key, Pending> entry : taken) {
+                    QuestProgress progress = entry.getValue().progress();
+                    for (Completion completion : entry.getValue().completions()) {
+                        database.writeStatistics(connection, progress.getPlayerUuid(), progress.getQuestOrdinal(),
+                                completion.completionTime(), completion.completedAt());
+                    }
+                }
+                database.writePlayerCounters(connection, completedByPlayer);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            requeue(taken);
+            failures++;
+            long retryDelay = Math.min(MAX_RETRY_DELAY_MILLIS, 1000L << Math.min(failures, 5));
+            plugin.getLogger().log(failures == 1 ? Level.SEVERE : Level.WARNING,
+                    "Failed to write " + taken.size() + " quest changes, retrying in "
+                            + retryDelay + "ms (attempt " + failures + ")", e);
+            if (!executor.isShutdown()) {
+                scheduleFlush(retryDelay);
+            }
+            return;
+        }
+        
+        for (int i = 0; i < saves.size(); i++) {
+            saves.get(i).markSaved(versions[i]);
+        }
+        if (failures > 0) {
+            plugin.getLogger().info("Quest changes are being written again after " + failures + " failed attempts");
+            failures = 0;
+        }
+    }
+    
+    private void requeue(List<Map.Entry<Key, Pending>> taken) {
+        for (Map.Entry<Key, Pending> entry : taken) {
+            // A change queued meanwhile is newer, but the failed completions still have to be written
+            pending.merge(entry.getKey(), entry.getValue(), (newer, failed) -> failed.then(newer));
+        }
+    }
+    
+    private boolean isWriterThread() {
+        return Thread.currentThread().getName().equals("QuestPlus Persistence");
+    }
+    
+    private boolean await(Future<?> future) {
+        try {
+            future.get(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            plugin.getLogger().log(Level.WARNING, "Timed out waiting for queued quest changes to be written", e);
+        }
+        return false;
+    }
+    
+    // Journal, one change per line: type, then tab separated fields, "-" for null
+    
+    private void writeJournal() {
+        File temporary = new File(journalFile.getPath() + ".tmp");
+        int written = 0;
+        try {
+            // Keep entries of an earlier journal that could not be replayed yet
+            if (journalFile.exists()) {
+                Files.copy(journalFile.toPath(), temporary.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary.toPath(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Pending change : pending.values()) {
+                    QuestProgress progress = change.progress();
+                    if (change.delete()) {
+                        writer.write(String.join("\t", "D", progress.getPlayerUuid().toString(), progress.getQuestId()));
+                    } else {
+                        writer.write(String.join("\t", "P", progress.getPlayerUuid().toString(), progress.getQuestId(),
+                                String.valueOf(progress.getProgress()), String.valueOf(progress.getTarget()),
+                                String.valueOf(progress.isCompleted()), String.valueOf(progress.isClaimed()),
+                                String.valueOf(progress.getStartedAt()), orDash(progress.getCompletedAt()),
+                                orDash(progress.getExpiresAt()), orDash(progress.encodeData())));
+                    }
+                    writer.newLine();
+                    written++;
+                    
+                    for (Completion completion : change.completions()) {
+                        writer.write(String.join("\t", "C", progress.getPlayerUuid().toString(), progress.getQuestId(),
+                                String.valueOf(completion.completionTime()), String.valueOf(completion.completedAt())));
+                        writer.newLine();
+                    }
+                }
+            }
+            
+            Files.move(temporary.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            plugin.getLogger().warning("Kept " + written + " unwritten quest changes in " + JOURNAL_FILE + ", they are written on the next start");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to journal " + pending.size() + " unwritten quest changes", e);
+        }
+    }
+    
+    /**
+     * Writes the changes journaled by an earlier shutdown, called once the tables exist and before any progress is loaded
+     */
+    void replayJournal() {
+        if (!journalFile.exists()) return;
+        
+        QuestDatabase database = databaseManager.getQuestDatabase();
+        QuestIdDictionary questIds = database.getQuestIds();
+        Map<UUID, Integer> completedByPlayer = new HashMap<>();
+        int replayed = 0;
+        
+        try (Connection connection = databaseManager.getConnection()) {
+            List<String[]> entries = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    
+                    String[] fields = line.split("\t", -1);
+                    // Quest ids are committed on their own, before the transaction
+                    questIds.intern(connection, fields[2]);
+                    entries.add(fields);
+                }
+            }
+            
+            connection.setAutoCommit(false);
+            try {
+                for (String[] fields : entries) {
+                    UUID playerUuid = UUID.fromString(fields[1]);
+                    int questOrdinal = questIds.ordinalOf(fields[2]);
+                    
+                    switch (fields[0]) {
+                        case "P" -> {
+                            QuestProgress progress = new QuestProgress(playerUuid, questIds.idOf(questOrdinal), questOrdinal,
+                                    Integer.parseInt(fields[4]));
+                            progress.setProgress(Integer.parseInt(fields[3]));
+                            progress.setCompleted(Boolean.parseBoolean(fields[5]));
+                            progress.setClaimed(Boolean.parseBoolean(fields[6]));
+                            progress.setStartedAt(Long.parseLong(fields[7]));
+                            progress.setCompletedAt(fields[8].equals("-") ? null : Long.parseLong(fields[8]));
+                            progress.setExpiresAt(fields[9].equals("-") ? null : Long.parseLong(fields[9]));
+                            progress.loadData(fields[10].equals("-") ? null : fields[10]);
+                            database.writeProgress(connection, List.of(progress));
+                        }
+                        case "D" -> database.deleteProgress(connection,
+                                List.of(new QuestProgress(playerUuid, questIds.idOf(questOrdinal), questOrdinal, 0)));
+                        case "C" -> {
+                            database.writeStatistics(connection, playerUuid, questOrdinal,
+                                    Long.parseLong(fields[3]), Long.parseLong(fields[4]));
+                            completedByPlayer.merge(playerUuid, 1, Integer::sum);
+                            continue;
+                        }
+                        default -> throw new IOException("Unknown journal entry: " + fields[0]);
+                    }
+                    completedByPlayer.putIfAbsent(playerUuid, 0);
+                    replayed++;
+                }
+                database.writePlayerCounters(connection, completedByPlayer);
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to replay " + JOURNAL_FILE + ", it is kept for the next start", e);
+            return;
+        }
+        
+        try {
+            Files.delete(journalFile.toPath());
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to delete " + JOURNAL_FILE + " after replaying it", e);
+        }
+        plugin.getLogger().info("Replayed " + replayed + " quest changes from " + JOURNAL_FILE);
+    }
+    
+    private static String orDash(Object value) {
+        return value != null ? value.toString() : "-";
+    }
+    
+    private record Key(UUID playerUuid, int questOrdinal) {
+    }
+    
+    private record Pending(QuestProgress progress, boolean delete, List<Completion> completions) {
+        
+        /**
+         * @return The next change to the same progress, still carrying the completions of this one
+         */
+        Pending then(Pending next) {
+            if (completions.isEmpty()) return next;
+            
+            List<Completion> merged = new ArrayList<>(completions);
+            merged.addAll(next.completions());
+            return new Pending(next.progress(), next.delete(), merged);
+        }
+    }
+    
+    private record Completion(long completionTime, long completedAt) {
+    }
+}
@@ -0,0 +1,15 @@
+package net.fliuxx.questplus.database;
+
+import net.fliuxx.questplus.quest.QuestProgress;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything loaded for a player when their session starts
+ * @param progress Their quest progress
+ * @param questsCompleted Their total quest completions, from quest_players
+ * @param completionsByQuest Completions per quest ordinal, from quest_statistics
+ */
+public record PlayerData(List<QuestProgress> progress, int questsCompleted, Map<Integer, Integer> completionsByQuest) {
+}
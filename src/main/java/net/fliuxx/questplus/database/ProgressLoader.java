@@ -0,0 +1,136 @@
+package net.fliuxx.questplus.database;
+
+import net.fliuxx.questplus.QuestPlus;
+import net.fliuxx.questplus.quest.QuestProgress;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Loads the progress of joining players on a dedicated thread.
+ * Requests that arrive while a load runs, or shortly after each other, are combined into one
+ * query for all their players, so a join storm after a restart does not queue one query per
+ * player on the database. The queue is bounded, callers wait when it is full.
+ */
+public class ProgressLoader {
+    
+    private static final int CAPACITY = 1000;
+    private static final int MAX_BATCH = 100; // Well below the bind parameter limit of every backend
+    private static final long LINGER_MILLIS = 10L;
+    
+    private final QuestPlus plugin;
+    private final DatabaseManager databaseManager;
+    private final BlockingQueue<Request> requests;
+    private final Thread thread;
+    
+    ProgressLoader(QuestPlus plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.requests = new ArrayBlockingQueue<>(CAPACITY);
+        this.thread = new Thread(this::run, "QuestPlus Loader");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Records the player in the database and loads their quest progress, blocks while the queue is full
+     * @param playerUuid The player's UUID
+     * @param username The player's current name
+     * @return The player's progress and counters, completed on the loader thread
+     */
+    public CompletableFuture<PlayerData> load(UUID playerUuid, String username) {
+        Request request = new Request(playerUuid, username, new CompletableFuture<>());
+        try {
+            requests.put(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            request.future().completeExceptionally(e);
+        }
+        return request.future();
+    }
+    
+    /**
+     * Stops the loader thread, requests still queued fail
+     */
+    void close() {
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        Request request;
+        while ((request = requests.poll()) != null) {
+            request.future().completeExceptionally(new IllegalStateException("The database is closing"));
+        }
+    }
+    
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Request> batch = new ArrayList<>();
+            try {
+                batch.add(requests.take());
+                
+                // Give players joining at the same moment a chance to share the query
+                Request next;
+                while (batch.size() < MAX_BATCH && (next = requests.poll(LINGER_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                batch.forEach(request -> request.future().completeExceptionally(e));
+                return;
+            }
+            
+            // A failure of one batch must not stop the thread, later joins would wait forever
+            try {
+                process(batch);
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to load quest progress for " + batch.size() + " players", e);
+                batch.forEach(request -> request.future().completeExceptionally(e));
+            }
+        }
+    }
+    
+    private void process(List<Request> batch) {
+        Map<UUID, String> players = new LinkedHashMap<>();
+        for (Request request : batch) {
+            players.put(request.playerUuid(), request.username());
+        }
+        
+        QuestDatabase database = databaseManager.getQuestDatabase();
+        Map<UUID, List<QuestProgress>> progress;
+        Map<UUID, Integer> completed;
+        Map<UUID, Map<Integer, Integer>> completions;
+        try (Connection connection = databaseManager.getConnection()) {
+            // Player rows first, progress written later references them
+            database.writePlayers(connection, players);
+            progress = database.readPlayerProgress(connection, players.keySet());
+            completed = database.readCompletedCounts(connection, players.keySet());
+            completions = database.readQuestCompletions(connection, players.keySet());
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load quest progress for " + players.size() + " players", e);
+            batch.forEach(request -> request.future().completeExceptionally(e));
+            return;
+        }
+        
+        for (Request request : batch) {
+            UUID playerUuid = request.playerUuid();
+            request.future().complete(new PlayerData(progress.getOrDefault(playerUuid, new ArrayList<>()),
+                    completed.getOrDefault(playerUuid, 0), completions.getOrDefault(playerUuid, Map.of())));
+        }
+    }
+    
+    private record Request(UUID playerUuid, String username, CompletableFuture<PlayerData> future) {
+    }
+}
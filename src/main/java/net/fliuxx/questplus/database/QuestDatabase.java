@@ -1,146 +1,120 @@
 package net.fliuxx.questplus.database;
 
+import net.fliuxx.questplus.QuestPlus;
 import net.fliuxx.questplus.quest.Quest;
 import net.fliuxx.questplus.quest.QuestProgress;
 import org.bukkit.Bukkit;
 
+import java.nio.ByteBuffer;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 /**
- * Handles all database operations for quests and player progress
+ * Handles all database operations for quests and player progress.
+ * Reads needed on the main thread have asynchronous variants, run on a dedicated I/O executor
+ * and completed on the main thread, so the server thread never waits on the database.
  */
 public class QuestDatabase {
     
+    private static final int MAX_IO_THREADS = 4;
+    
+    private final QuestPlus plugin;
     private final DatabaseManager databaseManager;
+    private final QuestIdDictionary questIds;
+    private final SqlDialect dialect;
+    private final ExecutorService ioExecutor;
     
-    public QuestDatabase(DatabaseManager databaseManager) {
+    public QuestDatabase(QuestPlus plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
         this.databaseManager = databaseManager;
+        this.dialect = databaseManager.getDialect();
+        this.questIds = new QuestIdDictionary(databaseManager);
+        
+        // More threads than pooled connections would only wait for a connection
+        int threads = Math.max(1, Math.min(MAX_IO_THREADS, plugin.getConfigManager().getConnectionPoolSize()));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.ioExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "QuestPlus I/O #" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public QuestIdDictionary getQuestIds() {
+        return questIds;
     }
     
     public void createTables() throws SQLException {
         try (Connection connection = databaseManager.getConnection()) {
-            // Players table
-            String createPlayersTable = """
-                CREATE TABLE IF NOT EXISTS quest_players (
-                    uuid VARCHAR(36) PRIMARY KEY,
-                    username VARCHAR(16) NOT NULL,
-                    quests_completed INTEGER DEFAULT 0,
-                    quests_active INTEGER DEFAULT 0,
-                    last_seen BIGINT NOT NULL,
-                    created_at BIGINT NOT NULL
+            // Schema version and migration state
+            String createSchemaTable = """
+                CREATE TABLE IF NOT EXISTS quest_schema (
+                    name VARCHAR(64) PRIMARY KEY,
+                    value VARCHAR(255) NOT NULL
                 )""";
             
-            // Quest progress table
-            String createProgressTable = """
-                CREATE TABLE IF NOT EXISTS quest_progress (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    player_uuid VARCHAR(36) NOT NULL,
-                    quest_id VARCHAR(100) NOT NULL,
-                    progress INTEGER DEFAULT 0,
-                    target INTEGER NOT NULL,
-                    completed BOOLEAN DEFAULT FALSE,
-                    claimed BOOLEAN DEFAULT FALSE,
-                    started_at BIGINT NOT NULL,
-                    completed_at BIGINT DEFAULT NULL,
-                    expires_at BIGINT DEFAULT NULL,
-                    data TEXT DEFAULT NULL,
-                    CONSTRAINT unique_quest_progress UNIQUE (player_uuid, quest_id),
-                    FOREIGN KEY (player_uuid) REFERENCES quest_players(uuid) ON DELETE CASCADE
-                )
-                """;
-            
-            // Quest statistics table
-            String createStatsTable = """
-                CREATE TABLE IF NOT EXISTS quest_statistics (
-                    id INTEGER PRIMARY KEY AUTOINCREMENT,
-                    player_uuid VARCHAR(36) NOT NULL,
-                    quest_id VARCHAR(100) NOT NULL,
-                    completions INTEGER DEFAULT 1,
-                    best_time BIGINT DEFAULT NULL,
-                    first_completion BIGINT NOT NULL,
-                    last_completion BIGINT NOT NULL,
-                    CONSTRAINT unique_quest_stats UNIQUE (player_uuid, quest_id),
-                    FOREIGN KEY (player_uuid) REFERENCES quest_players(uuid) ON DELETE CASCADE
-                )
-                """;
-            
-            // Adjust for SQLite
-            if (databaseManager.getConnection().getMetaData().getDriverName().contains("SQLite")) {
-                createProgressTable = createProgressTable.replace("AUTO_INCREMENT", "AUTOINCREMENT");
-                createStatsTable = createStatsTable.replace("AUTO_INCREMENT", "AUTOINCREMENT");
-                createProgressTable = createProgressTable.replace("UNIQUE KEY", "CONSTRAINT");
-                createStatsTable = createStatsTable.replace("UNIQUE KEY", "CONSTRAINT");
-            }
+            // Quest id dictionary table
+            String createQuestIdsTable = """
+                CREATE TABLE IF NOT EXISTS quest_ids (
+                    ordinal INTEGER PRIMARY KEY,
+                    quest_id VARCHAR(100) NOT NULL UNIQUE
+                )""";
             
             try (Statement statement = connection.createStatement()) {
-                statement.execute(createPlayersTable);
-                statement.execute(createProgressTable);
-                statement.execute(createStatsTable);
+                statement.execute(createSchemaTable);
+                statement.execute(createQuestIdsTable);
             }
+            
+            questIds.load(connection);
+            
+            // Players, progress and statistics tables, migrated from older schema versions
+            new SchemaMigrator(connection, dialect, questIds).run();
         }
     }
     
     // Player operations
-    public void createOrUpdatePlayer(UUID playerUuid, String username) {
-        String sql = """
-            INSERT INTO quest_players (uuid, username, last_seen, created_at) 
-            VALUES (?, ?, ?, ?) 
-            ON DUPLICATE KEY UPDATE username = ?, last_seen = ?""";
-            
-        // SQLite version
-        String sqliteSql = """
-            INSERT OR REPLACE INTO quest_players (uuid, username, last_seen, created_at) 
-            VALUES (?, ?, ?, COALESCE((SELECT created_at FROM quest_players WHERE uuid = ?), ?))""";
+    /**
+     * Creates or updates several player rows in one batch
+     * @param players Current name per player
+     */
+    void writePlayers(Connection connection, Map<UUID, String> players) throws SQLException {
+        long currentTime = System.currentTimeMillis();
         
-        try (Connection connection = databaseManager.getConnection()) {
-            boolean isSQLite = connection.getMetaData().getDriverName().contains("SQLite");
-            long currentTime = System.currentTimeMillis();
-            
-            try (PreparedStatement statement = connection.prepareStatement(isSQLite ? sqliteSql : sql)) {
-                if (isSQLite) {
-                    statement.setString(1, playerUuid.toString());
-                    statement.setString(2, username);
-                    statement.setLong(3, currentTime);
-                    statement.setLong(4, currentTime);
-                    statement.setString(5, playerUuid.toString());
-                    statement.setLong(6, currentTime);
-                } else {
-                    statement.setString(1, playerUuid.toString());
-                    statement.setString(2, username);
-                    statement.setLong(3, currentTime);
-                    statement.setLong(4, currentTime);
-                    statement.setString(5, username);
-                    statement.setLong(6, currentTime);
-                }
-                statement.executeUpdate();
+        try (PreparedStatement statement = connection.prepareStatement(dialect.upsertPlayer())) {
+            for (Map.Entry<UUID, String> player : players.entrySet()) {
+                statement.setBytes(1, toBytes(player.getKey()));
+                statement.setString(2, player.getValue());
+                statement.setLong(3, currentTime);
+                statement.setLong(4, currentTime);
+                statement.addBatch();
             }
-        } catch (SQLException e) {
-            Bukkit.getLogger().log(Level.SEVERE, "Failed to create/update player: " + playerUuid, e);
+            statement.executeBatch();
         }
     }
     
     // Quest progress operations
-    public void saveQuestProgress(QuestProgress progress) {
-        String sql = """
-            INSERT INTO quest_progress (player_uuid, quest_id, progress, target, completed, claimed, 
-                                      started_at, completed_at, expires_at, data) 
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) 
-            ON DUPLICATE KEY UPDATE 
-                progress = ?, completed = ?, claimed = ?, completed_at = ?, data = ?""";
+    /**
+     * Upserts progress rows in one batch, within the caller's transaction
+     * @return The version of each entry read before it was bound, to mark it saved once committed
+     */
+    int[] writeProgress(Connection connection, List<QuestProgress> progressList) throws SQLException {
+        // Versions are read before binding, changes made while writing stay dirty
+        int[] versions = new int[progressList.size()];
         
-        String sqliteSql = """
-            INSERT OR REPLACE INTO quest_progress (player_uuid, quest_id, progress, target, completed, claimed, 
-                                                 started_at, completed_at, expires_at, data) 
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
-        
-        try (Connection connection = databaseManager.getConnection()) {
-            boolean isSQLite = connection.getMetaData().getDriverName().contains("SQLite");
-            
-            try (PreparedStatement statement = connection.prepareStatement(isSQLite ? sqliteSql : sql)) {
-                statement.setString(1, progress.getPlayerUuid().toString());
-                statement.setString(2, progress.getQuestId());
+        try (PreparedStatement statement = connection.prepareStatement(dialect.upsertProgress())) {
+            for (int i = 0; i < progressList.size(); i++) {
+                QuestProgress progress = progressList.get(i);
+                versions[i] = progress.getVersion();
+                
+                statement.setBytes(1, toBytes(progress.getPlayerUuid()));
+                statement.setInt(2, progress.getQuestOrdinal());
                 statement.setInt(3, progress.getProgress());
                 statement.setInt(4, progress.getTarget());
                 statement.setBoolean(5, progress.isCompleted());
@@ -148,108 +122,127 @@ public class QuestDatabase {
                 statement.setLong(7, progress.getStartedAt());
                 statement.setObject(8, progress.getCompletedAt());
                 statement.setObject(9, progress.getExpiresAt());
-                statement.setString(10, progress.getDataAsJson());
-                
-                if (!isSQLite) {
-                    statement.setInt(11, progress.getProgress());
-                    statement.setBoolean(12, progress.isCompleted());
-                    statement.setBoolean(13, progress.isClaimed());
-                    statement.setObject(14, progress.getCompletedAt());
-                    statement.setString(15, progress.getDataAsJson());
-                }
-                
-                statement.executeUpdate();
+                statement.setString(10, progress.encodeData());
+                statement.addBatch();
             }
-        } catch (SQLException e) {
-            Bukkit.getLogger().log(Level.SEVERE, "Failed to save quest progress: " + progress.getQuestId() + " for " + progress.getPlayerUuid(), e);
+            
+            statement.executeBatch();
         }
+        
+        return versions;
     }
     
     public List<QuestProgress> getPlayerProgress(UUID playerUuid) {
-        List<QuestProgress> progressList = new ArrayList<>();
-        String sql = "SELECT * FROM quest_progress WHERE player_uuid = ?";
+        try (Connection connection = databaseManager.getConnection()) {
+            return readPlayerProgress(connection, List.of(playerUuid)).getOrDefault(playerUuid, new ArrayList<>());
+        } catch (SQLException e) {
+            Bukkit.getLogger().log(Level.SEVERE, "Failed to load player progress: " + playerUuid, e);
+        }
         
-        try (Connection connection = databaseManager.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            
-            statement.setString(1, playerUuid.toString());
+        return new ArrayList<>();
+    }
+    
+    /**
+     * Loads the progress of several players with one query
+     * @return Progress per player, players without any are left out
+     */
+    Map<UUID, List<QuestProgress>> readPlayerProgress(Connection connection, Collection<UUID> playerUuids) throws SQLException {
+        Map<UUID, List<QuestProgress>> progressByPlayer = new HashMap<>();
+        if (playerUuids.isEmpty()) return progressByPlayer;
+        
+        String sql = "SELECT * FROM quest_progress WHERE player_uuid IN (" + parameters(playerUuids.size()) + ")";
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            setPlayers(statement, playerUuids);
             
             try (ResultSet resultSet = statement.executeQuery()) {
                 while (resultSet.next()) {
-                    QuestProgress progress = new QuestProgress(
-                        UUID.fromString(resultSet.getString("player_uuid")),
-                        resultSet.getString("quest_id"),
-                        resultSet.getInt("target")
-                    );
-                    
-                    progress.setProgress(resultSet.getInt("progress"));
-                    progress.setCompleted(resultSet.getBoolean("completed"));
-                    progress.setClaimed(resultSet.getBoolean("claimed"));
-                    progress.setStartedAt(resultSet.getLong("started_at"));
-                    
-                    Long completedAt = resultSet.getObject("completed_at", Long.class);
-                    if (completedAt != null) {
-                        progress.setCompletedAt(completedAt);
-                    }
-                    
-                    Long expiresAt = resultSet.getObject("expires_at", Long.class);
-                    if (expiresAt != null) {
-                        progress.setExpiresAt(expiresAt);
+                    UUID playerUuid = fromBytes(resultSet.getBytes("player_uuid"));
+                    QuestProgress progress = readProgress(playerUuid, resultSet);
+                    if (progress != null) {
+                        progressByPlayer.computeIfAbsent(playerUuid, k -> new ArrayList<>()).add(progress);
                     }
-                    
-                    String data = resultSet.getString("data");
-                    if (data != null) {
-                        progress.setDataFromJson(data);
-                    }
-                    
-                    progressList.add(progress);
                 }
             }
-        } catch (SQLException e) {
-            Bukkit.getLogger().log(Level.SEVERE, "Failed to load player progress: " + playerUuid, e);
         }
         
-        return progressList;
+        return progressByPlayer;
+    }
+    
+    /**
+     * Loads the quests_completed counter of several players with one query
+     * @return Completions per player, players without a row are left out
+     */
+    Map<UUID, Integer> readCompletedCounts(Connection connection, Collection<UUID> playerUuids) throws SQLException {
+        Map<UUID, Integer> completedByPlayer = new HashMap<>();
+        if (playerUuids.isEmpty()) return completedByPlayer;
+        
+        String sql = "SELECT uuid, quests_completed FROM quest_players WHERE uuid IN (" + parameters(playerUuids.size()) + ")";
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            setPlayers(statement, playerUuids);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    completedByPlayer.put(fromBytes(resultSet.getBytes("uuid")), resultSet.getInt("quests_completed"));
+                }
+            }
+        }
+        
+        return completedByPlayer;
+    }
+    
+    /**
+     * Loads the completions per quest of several players with one query
+     * @return Completions per quest ordinal per player, players without any are left out
+     */
+    Map<UUID, Map<Integer, Integer>> readQuestCompletions(Connection connection, Collection<UUID> playerUuids) throws SQLException {
+        Map<UUID, Map<Integer, Integer>> completionsByPlayer = new HashMap<>();
+        if (playerUuids.isEmpty()) return completionsByPlayer;
+        
+        String sql = "SELECT player_uuid, quest_ordinal, completions FROM quest_statistics WHERE player_uuid IN ("
+                + parameters(playerUuids.size()) + ")";
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            setPlayers(statement, playerUuids);
+            
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    completionsByPlayer.computeIfAbsent(fromBytes(resultSet.getBytes("player_uuid")), k -> new HashMap<>())
+                            .put(resultSet.getInt("quest_ordinal"), resultSet.getInt("completions"));
+                }
+            }
+        }
+        
+        return completionsByPlayer;
+    }
+    
+    private static String parameters(int count) {
+        return "?, ".repeat(count - 1) + "?";
+    }
+    
+    private static void setPlayers(PreparedStatement statement, Collection<UUID> playerUuids) throws SQLException {
+        int index = 1;
+        for (UUID playerUuid : playerUuids) {
+            statement.setBytes(index++, toBytes(playerUuid));
+        }
     }
     
     public QuestProgress getQuestProgress(UUID playerUuid, String questId) {
-        String sql = "SELECT * FROM quest_progress WHERE player_uuid = ? AND quest_id = ?";
+        int questOrdinal = questIds.ordinalOf(questId);
+        if (questOrdinal < 0) return null;
+        
+        String sql = "SELECT * FROM quest_progress WHERE player_uuid = ? AND quest_ordinal = ?";
         
         try (Connection connection = databaseManager.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             
-            statement.setString(1, playerUuid.toString());
-            statement.setString(2, questId);
+            statement.setBytes(1, toBytes(playerUuid));
+            statement.setInt(2, questOrdinal);
             
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
-                    QuestProgress progress = new QuestProgress(
-                        UUID.fromString(resultSet.getString("player_uuid")),
-                        resultSet.getString("quest_id"),
-                        resultSet.getInt("target")
-                    );
-                    
-                    progress.setProgress(resultSet.getInt("progress"));
-                    progress.setCompleted(resultSet.getBoolean("completed"));
-                    progress.setClaimed(resultSet.getBoolean("claimed"));
-                    progress.setStartedAt(resultSet.getLong("started_at"));
-                    
-                    Long completedAt = resultSet.getObject("completed_at", Long.class);
-                    if (completedAt != null) {
-                        progress.setCompletedAt(completedAt);
-                    }
-                    
-                    Long expiresAt = resultSet.getObject("expires_at", Long.class);
-                    if (expiresAt != null) {
-                        progress.setExpiresAt(expiresAt);
-                    }
-                    
-                    String data = resultSet.getString("data");
-                    if (data != null) {
-                        progress.setDataFromJson(data);
-                    }
-                    
-                    return progress;
+                    return readProgress(playerUuid, resultSet);
                 }
             }
         } catch (SQLException e) {
@@ -259,87 +252,112 @@ public class QuestDatabase {
         return null;
     }
     
-    public void deleteQuestProgress(UUID playerUuid, String questId) {
-        String sql = "DELETE FROM quest_progress WHERE player_uuid = ? AND quest_id = ?";
+    private QuestProgress readProgress(UUID playerUuid, ResultSet resultSet) throws SQLException {
+        int questOrdinal = resultSet.getInt("quest_ordinal");
+        String questId = questIds.idOf(questOrdinal);
+        if (questId == null) {
+            Bukkit.getLogger().warning("Skipping quest progress with unknown quest ordinal " + questOrdinal + " for " + playerUuid);
+            return null;
+        }
         
-        try (Connection connection = databaseManager.getConnection();
-             PreparedStatement statement = connection.prepareStatement(sql)) {
-            
-            statement.setString(1, playerUuid.toString());
-            statement.setString(2, questId);
-            statement.executeUpdate();
-            
-        } catch (SQLException e) {
-            Bukkit.getLogger().log(Level.SEVERE, "Failed to delete quest progress: " + questId + " for " + playerUuid, e);
+        QuestProgress progress = new QuestProgress(playerUuid, questId, questOrdinal, resultSet.getInt("target"));
+        progress.setProgress(resultSet.getInt("progress"));
+        progress.setCompleted(resultSet.getBoolean("completed"));
+        progress.setClaimed(resultSet.getBoolean("claimed"));
+        progress.setStartedAt(resultSet.getLong("started_at"));
+        
+        Long completedAt = resultSet.getObject("completed_at", Long.class);
+        if (completedAt != null) {
+            progress.setCompletedAt(completedAt);
+        }
+        
+        Long expiresAt = resultSet.getObject("expires_at", Long.class);
+        if (expiresAt != null) {
+            progress.setExpiresAt(expiresAt);
+        }
+        
+        String data = resultSet.getString("data");
+        if (data != null) {
+            progress.loadData(data);
+        }
+        
+        progress.markSaved(progress.getVersion());
+        return progress;
+    }
+    
+    /**
+     * Deletes several quest progress rows in one batch, within the caller's transaction
+     * @param progressList Progress entries whose rows should be deleted
+     */
+    void deleteProgress(Connection connection, Collection<QuestProgress> progressList) throws SQLException {
+        String sql = "DELETE FROM quest_progress WHERE player_uuid = ? AND quest_ordinal = ?";
+        
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (QuestProgress progress : progressList) {
+                statement.setBytes(1, toBytes(progress.getPlayerUuid()));
+                statement.setInt(2, progress.getQuestOrdinal());
+                statement.addBatch();
+            }
+            statement.executeBatch();
         }
     }
     
     // Statistics operations
-    public void saveQuestStatistics(UUID playerUuid, String questId, long completionTime) {
-        String sql = """
-            INSERT INTO quest_statistics (player_uuid, quest_id, completions, best_time, first_completion, last_completion) 
-            VALUES (?, ?, 1, ?, ?, ?) 
-            ON DUPLICATE KEY UPDATE 
-                completions = completions + 1, 
-                best_time = CASE WHEN best_time IS NULL OR ? < best_time THEN ? ELSE best_time END,
-                last_completion = ?""";
+    /**
+     * Records one completion of a quest, within the caller's transaction
+     * @param completionTime Time taken to complete the quest in milliseconds
+     * @param completedAt When the quest was completed
+     */
+    void writeStatistics(Connection connection, UUID playerUuid, int questOrdinal, long completionTime,
+                         long completedAt) throws SQLException {
+        byte[] uuidBytes = toBytes(playerUuid);
+        
+        try (PreparedStatement statement = connection.prepareStatement(dialect.upsertStatistics())) {
+            statement.setBytes(1, uuidBytes);
+            statement.setInt(2, questOrdinal);
+            statement.setLong(3, completionTime);
+            statement.setLong(4, completedAt);
+            statement.setLong(5, completedAt);
+            statement.executeUpdate();
+        }
+    }
+    
+    /**
+     * Updates the quests_completed and quests_active counters of players, within the caller's transaction
+     * and after their progress rows were written
+     * @param completedByPlayer Completions to add per player, zero to only recount the active quests
+     */
+    void writePlayerCounters(Connection connection, Map<UUID, Integer> completedByPlayer) throws SQLException {
+        if (completedByPlayer.isEmpty()) return;
         
-        String sqliteSql = """
-            INSERT OR REPLACE INTO quest_statistics (player_uuid, quest_id, completions, best_time, first_completion, last_completion) 
-            VALUES (?, ?, 
-                    COALESCE((SELECT completions FROM quest_statistics WHERE player_uuid = ? AND quest_id = ?), 0) + 1,
-                    CASE WHEN (SELECT best_time FROM quest_statistics WHERE player_uuid = ? AND quest_id = ?) IS NULL 
-                         OR ? < (SELECT best_time FROM quest_statistics WHERE player_uuid = ? AND quest_id = ?) 
-                    THEN ? ELSE (SELECT best_time FROM quest_statistics WHERE player_uuid = ? AND quest_id = ?) END,
-                    COALESCE((SELECT first_completion FROM quest_statistics WHERE player_uuid = ? AND quest_id = ?), ?),
-                    ?)""";
+        String sql = """
+            UPDATE quest_players SET
+                quests_active = (SELECT COUNT(*) FROM quest_progress WHERE player_uuid = ? AND completed = FALSE),
+                quests_completed = quests_completed + ?
+            WHERE uuid = ?""";
         
-        try (Connection connection = databaseManager.getConnection()) {
-            boolean isSQLite = connection.getMetaData().getDriverName().contains("SQLite");
-            long currentTime = System.currentTimeMillis();
-            
-            try (PreparedStatement statement = connection.prepareStatement(isSQLite ? sqliteSql : sql)) {
-                if (isSQLite) {
-                    statement.setString(1, playerUuid.toString());
-                    statement.setString(2, questId);
-                    statement.setString(3, playerUuid.toString());
-                    statement.setString(4, questId);
-                    statement.setString(5, playerUuid.toString());
-                    statement.setString(6, questId);
-                    statement.setLong(7, completionTime);
-                    statement.setString(8, playerUuid.toString());
-                    statement.setString(9, questId);
-                    statement.setLong(10, completionTime);
-                    statement.setString(11, playerUuid.toString());
-                    statement.setString(12, questId);
-                    statement.setString(13, playerUuid.toString());
-                    statement.setString(14, questId);
-                    statement.setLong(15, currentTime);
-                    statement.setLong(16, currentTime);
-                } else {
-                    statement.setString(1, playerUuid.toString());
-                    statement.setString(2, questId);
-                    statement.setLong(3, completionTime);
-                    statement.setLong(4, currentTime);
-                    statement.setLong(5, currentTime);
-                    statement.setLong(6, completionTime);
-                    statement.setLong(7, completionTime);
-                    statement.setLong(8, currentTime);
-                }
-                statement.executeUpdate();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (Map.Entry<UUID, Integer> entry : completedByPlayer.entrySet()) {
+                byte[] uuidBytes = toBytes(entry.getKey());
+                statement.setBytes(1, uuidBytes);
+                statement.setInt(2, entry.getValue());
+                statement.setBytes(3, uuidBytes);
+                statement.addBatch();
             }
-        } catch (SQLException e) {
-            Bukkit.getLogger().log(Level.SEVERE, "Failed to save quest statistics: " + questId + " for " + playerUuid, e);
+            statement.executeBatch();
         }
     }
     
+    /**
+     * Reads the quests_active counter, kept up to date with every write of the player's progress
+     */
     public int getActiveQuestCount(UUID playerUuid) {
-        String sql = "SELECT COUNT(*) FROM quest_progress WHERE player_uuid = ? AND completed = FALSE";
+        String sql = "SELECT quests_active FROM quest_players WHERE uuid = ?";
         
         try (Connection connection = databaseManager.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             
-            statement.setString(1, playerUuid.toString());
+            statement.setBytes(1, toBytes(playerUuid));
             
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
@@ -353,13 +371,16 @@ public class QuestDatabase {
         return 0;
     }
     
+    /**
+     * Reads the quests_completed counter, incremented with every completion written
+     */
     public int getCompletedQuestCount(UUID playerUuid) {
-        String sql = "SELECT COALESCE(SUM(completions), 0) FROM quest_statistics WHERE player_uuid = ?";
+        String sql = "SELECT quests_completed FROM quest_players WHERE uuid = ?";
         
         try (Connection connection = databaseManager.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             
-            statement.setString(1, playerUuid.toString());
+            statement.setBytes(1, toBytes(playerUuid));
             
             try (ResultSet resultSet = statement.executeQuery()) {
                 if (resultSet.next()) {
@@ -372,4 +393,69 @@ public class QuestDatabase {
         
         return 0;
     }
+    
+    // Asynchronous reads, completed on the main thread
+    public CompletableFuture<List<QuestProgress>> getPlayerProgressAsync(UUID playerUuid) {
+        return supplyAsync(() -> getPlayerProgress(playerUuid));
+    }
+    
+    public CompletableFuture<QuestProgress> getQuestProgressAsync(UUID playerUuid, String questId) {
+        return supplyAsync(() -> getQuestProgress(playerUuid, questId));
+    }
+    
+    public CompletableFuture<Integer> getActiveQuestCountAsync(UUID playerUuid) {
+        return supplyAsync(() -> getActiveQuestCount(playerUuid));
+    }
+    
+    public CompletableFuture<Integer> getCompletedQuestCountAsync(UUID playerUuid) {
+        return supplyAsync(() -> getCompletedQuestCount(playerUuid));
+    }
+    
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(query, ioExecutor).whenComplete((value, error) -> {
+            Runnable complete = () -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            };
+            
+            // Tasks cannot be scheduled once the plugin is disabled
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, complete);
+            } else {
+                complete.run();
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Stops the I/O executor, reads still running are given a few seconds to finish
+     */
+    void close() {
+        ioExecutor.shutdown();
+        try {
+            ioExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * @return The player id as stored in BINARY(16) and BLOB columns
+     */
+    static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+    
+    static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
 }
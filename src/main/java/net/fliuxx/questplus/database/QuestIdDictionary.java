@@ -0,0 +1,123 @@
+package net.fliuxx.questplus.database;
+
+import org.bukkit.Bukkit;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Persisted dictionary of quest ids to dense integer ordinals.
+ * An id keeps its ordinal for as long as the quest_ids table exists, across restarts and
+ * reloads, so ordinals can index per-player arrays. Ids handed out by the dictionary are
+ * canonical instances, every progress of a quest shares one string.
+ * An ordinal is only handed out once its row is committed, servers sharing the database
+ * adopt the ordinals the others persisted.
+ */
+public class QuestIdDictionary {
+    
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+    
+    private final DatabaseManager databaseManager;
+    private final Map<String, Integer> ordinals;
+    private volatile String[] ids; // Indexed by ordinal, copied on write
+    
+    QuestIdDictionary(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        this.ordinals = new ConcurrentHashMap<>();
+        this.ids = new String[0];
+    }
+    
+    synchronized void load(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT ordinal, quest_id FROM quest_ids")) {
+            while (resultSet.next()) {
+                put(resultSet.getInt("ordinal"), resultSet.getString("quest_id"));
+            }
+        }
+    }
+    
+    /**
+     * @return The ordinal of the quest id, or -1 if it was never registered
+     */
+    public int ordinalOf(String questId) {
+        Integer ordinal = ordinals.get(questId);
+        return ordinal != null ? ordinal : -1;
+    }
+    
+    /**
+     * @return The canonical quest id for the ordinal, or null if it is not assigned
+     */
+    public String idOf(int ordinal) {
+        String[] current = ids;
+        return ordinal >= 0 && ordinal < current.length ? current[ordinal] : null;
+    }
+    
+    /**
+     * @return One more than the highest assigned ordinal
+     */
+    public int size() {
+        return ids.length;
+    }
+    
+    /**
+     * Gets the ordinal of a quest id, assigning and persisting the next free one if it is new
+     * @param questId The quest ID
+     * @return The ordinal of the quest id
+     * @throws SQLException If a new id could not be persisted, it is then left unassigned
+     */
+    public int intern(String questId) throws SQLException {
+        Integer ordinal = ordinals.get(questId);
+        if (ordinal != null) return ordinal;
+        
+        try (Connection connection = databaseManager.getConnection()) {
+            return intern(connection, questId);
+        }
+    }
+    
+    /**
+     * Same as {@link #intern(String)}, persisting through a connection the caller already holds.
+     * New ids are committed on their own, so the connection must not be inside a transaction.
+     */
+    synchronized int intern(Connection connection, String questId) throws SQLException {
+        if (!connection.getAutoCommit()) {
+            throw new IllegalStateException("Quest ids cannot be persisted inside a transaction");
+        }
+        
+        for (int attempt = 1; ; attempt++) {
+            Integer known = ordinals.get(questId);
+            if (known != null) return known;
+            
+            int ordinal = ids.length;
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO quest_ids (ordinal, quest_id) VALUES (?, ?)")) {
+                statement.setInt(1, ordinal);
+                statement.setString(2, questId);
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                if (attempt >= MAX_INSERT_ATTEMPTS) throw e;
+                
+                // Another server sharing the database may have taken the ordinal or assigned the id
+                Bukkit.getLogger().log(Level.FINE, "Re-reading quest ids after a conflict on " + questId, e);
+                load(connection);
+                continue;
+            }
+            put(ordinal, questId);
+            return ordinal;
+        }
+    }
+    
+    private void put(int ordinal, String questId) {
+        String[] current = ids;
+        String[] updated = Arrays.copyOf(current, Math.max(current.length, ordinal + 1));
+        updated[ordinal] = questId;
+        ids = updated;
+        ordinals.put(questId, ordinal);
+    }
+}
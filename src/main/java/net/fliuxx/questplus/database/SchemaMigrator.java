@@ -0,0 +1,353 @@
+package net.fliuxx.questplus.database;
+
+import org.bukkit.Bukkit;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Creates the quest tables and upgrades databases written by older versions.
+ * Version 1 stored player ids as text and quest ids as strings. Version 2 stores player ids
+ * as 16 bytes and quests by their dictionary ordinal. Legacy rows are copied to the new tables
+ * in small chunks, each committed together with its cursor, so no lock is held for long and an
+ * interrupted migration resumes where it stopped. The legacy tables are kept with a _v1 suffix.
+ * Version 3 maintains the player counters in quest_players, which older versions left at zero.
+ */
+class SchemaMigrator {
+    
+    static final int CURRENT_VERSION = 3;
+    
+    private static final int CHUNK_SIZE = 500;
+    private static final String VERSION_KEY = "version";
+    private static final String CURSOR_KEY_PREFIX = "migration.";
+    
+    private final Connection connection;
+    private final SqlDialect dialect;
+    private final QuestIdDictionary questIds;
+    
+    SchemaMigrator(Connection connection, SqlDialect dialect, QuestIdDictionary questIds) {
+        this.connection = connection;
+        this.dialect = dialect;
+        this.questIds = questIds;
+    }
+    
+    /**
+     * Brings the schema to the current version, the quest_schema and quest_ids tables must exist
+     */
+    void run() throws SQLException {
+        String storedVersion = readValue(VERSION_KEY);
+        int version;
+        if (storedVersion != null) {
+            version = Integer.parseInt(storedVersion);
+        } else if (tableExists("quest_players")) {
+            version = 1; // Written before the schema was versioned
+        } else {
+            version = CURRENT_VERSION;
+        }
+        
+        if (version < 2) {
+            migrateToVersion2();
+        }
+        
+        createTables("");
+        
+        if (version < 3) {
+            migrateToVersion3();
+        }
+        
+        writeValue(VERSION_KEY, String.valueOf(CURRENT_VERSION));
+    }
+    
+    private void migrateToVersion2() throws SQLException {
+        // The tables may already have been swapped when the version could not be recorded
+        if (tableExists("quest_players_v1")) return;
+        
+        Bukkit.getLogger().info("Migrating database to schema version 2, this may take a while");
+        createTables("_v2");
+        
+        copy("quest_players", false, """
+                SELECT uuid, username, quests_completed, quests_active, last_seen, created_at
+                FROM quest_players WHERE uuid > ? ORDER BY uuid LIMIT ?""",
+                dialect.insertIgnore() + " quest_players_v2 (uuid, username, quests_completed, quests_active, last_seen, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                (row, insert) -> {
+                    insert.setBytes(1, QuestDatabase.toBytes(UUID.fromString(row.getString("uuid"))));
+                    insert.setString(2, row.getString("username"));
+                    insert.setInt(3, row.getInt("quests_completed"));
+                    insert.setInt(4, row.getInt("quests_active"));
+                    insert.setLong(5, row.getLong("last_seen"));
+                    insert.setLong(6, row.getLong("created_at"));
+                    return row.getString("uuid");
+                });
+        
+        // Quest ids are committed on their own, the copies below run in transactions
+        internLegacyQuestIds();
+        
+        // Rows of players without a player row would violate the foreign key
+        copy("quest_progress", true, """
+                SELECT p.id, p.player_uuid, p.quest_id, p.progress, p.target, p.completed, p.claimed,
+                       p.started_at, p.completed_at, p.expires_at, p.data
+                FROM quest_progress p JOIN quest_players u ON u.uuid = p.player_uuid
+                WHERE p.id > ? ORDER BY p.id LIMIT ?""",
+                dialect.insertIgnore() + " quest_progress_v2 (player_uuid, quest_ordinal, progress, target, completed, claimed, "
+                        + "started_at, completed_at, expires_at, data) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                (row, insert) -> {
+                    insert.setBytes(1, QuestDatabase.toBytes(UUID.fromString(row.getString("player_uuid"))));
+                    insert.setInt(2, legacyOrdinal(row.getString("quest_id")));
+                    insert.setInt(3, row.getInt("progress"));
+                    insert.setInt(4, row.getInt("target"));
+                    insert.setBoolean(5, row.getBoolean("completed"));
+                    insert.setBoolean(6, row.getBoolean("claimed"));
+                    insert.setLong(7, row.getLong("started_at"));
+                    insert.setObject(8, row.getObject("completed_at", Long.class));
+                    insert.setObject(9, row.getObject("expires_at", Long.class));
+                    insert.setString(10, row.getString("data"));
+                    return String.valueOf(row.getLong("id"));
+                });
+        
+        copy("quest_statistics", true, """
+                SELECT s.id, s.player_uuid, s.quest_id, s.completions, s.best_time, s.first_completion, s.last_completion
+                FROM quest_statistics s JOIN quest_players u ON u.uuid = s.player_uuid
+                WHERE s.id > ? ORDER BY s.id LIMIT ?""",
+                dialect.insertIgnore() + " quest_statistics_v2 (player_uuid, quest_ordinal, completions, best_time, "
+                        + "first_completion, last_completion) VALUES (?, ?, ?, ?, ?, ?)",
+                (row, insert) -> {
+                    insert.setBytes(1, QuestDatabase.toBytes(UUID.fromString(row.getString("player_uuid"))));
+                    insert.setInt(2, legacyOrdinal(row.getString("quest_id")));
+                    insert.setInt(3, row.getInt("completions"));
+                    insert.setObject(4, row.getObject("best_time", Long.class));
+                    insert.setLong(5, row.getLong("first_completion"));
+                    insert.setLong(6, row.getLong("last_completion"));
+                    return String.valueOf(row.getLong("id"));
+                });
+        
+        swapTables();
+        Bukkit.getLogger().info("Database migrated to schema version 2, legacy tables were kept with a _v1 suffix");
+    }
+    
+    private void internLegacyQuestIds() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT quest_id FROM quest_progress UNION SELECT quest_id FROM quest_statistics")) {
+            while (resultSet.next()) {
+                questIds.intern(connection, resultSet.getString("quest_id"));
+            }
+        }
+    }
+    
+    private int legacyOrdinal(String questId) {
+        int ordinal = questIds.ordinalOf(questId);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Quest id was not registered: " + questId);
+        }
+        return ordinal;
+    }
+    
+    private void migrateToVersion3() throws SQLException {
+        String sql = """
+                UPDATE quest_players SET
+                    quests_active = (SELECT COUNT(*) FROM quest_progress p
+                                     WHERE p.player_uuid = quest_players.uuid AND p.completed = FALSE),
+                    quests_completed = (SELECT COALESCE(SUM(s.completions), 0) FROM quest_statistics s
+                                        WHERE s.player_uuid = quest_players.uuid)""";
+        
+        try (Statement statement = connection.createStatement()) {
+            int players = statement.executeUpdate(sql);
+            Bukkit.getLogger().info("Counted the quests of " + players + " players for schema version 3");
+        }
+    }
+    
+    /**
+     * Copies a legacy table in chunks, resuming after the cursor recorded by the last committed chunk
+     * @param numericCursor Whether the cursor column is numeric rather than text
+     */
+    private void copy(String table, boolean numericCursor, String selectSql, String insertSql, RowCopier copier) throws SQLException {
+        String cursorKey = CURSOR_KEY_PREFIX + table;
+        String cursor = readValue(cursorKey);
+        if (cursor == null) {
+            cursor = numericCursor ? "0" : "";
+        }
+        
+        int copied = 0;
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement select = connection.prepareStatement(selectSql);
+             PreparedStatement insert = connection.prepareStatement(insertSql)) {
+            while (true) {
+                if (numericCursor) {
+                    select.setLong(1, Long.parseLong(cursor));
+                } else {
+                    select.setString(1, cursor);
+                }
+                select.setInt(2, CHUNK_SIZE);
+                
+                int rows = 0;
+                try (ResultSet row = select.executeQuery()) {
+                    while (row.next()) {
+                        rows++;
+                        try {
+                            cursor = copier.copy(row, insert);
+                            insert.addBatch();
+                        } catch (IllegalArgumentException e) {
+                            // Malformed player id, the row cannot be keyed in the new schema
+                            cursor = numericCursor ? String.valueOf(row.getLong("id")) : row.getString("uuid");
+                            insert.clearParameters();
+                            Bukkit.getLogger().warning("Skipping unreadable row in " + table + ": " + e.getMessage());
+                        }
+                    }
+                }
+                if (rows == 0) break;
+                
+                insert.executeBatch();
+                writeValue(cursorKey, cursor);
+                connection.commit();
+                copied += rows;
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        
+        Bukkit.getLogger().info("Migrated " + copied + " rows of " + table);
+    }
+    
+    private void swapTables() throws SQLException {
+        if (dialect != SqlDialect.MYSQL) {
+            // Renames rewrite the foreign keys of the other tables, keep both sets consistent in one transaction
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String table : new String[] {"quest_statistics", "quest_progress", "quest_players"}) {
+                    statement.execute("ALTER TABLE " + table + " RENAME TO " + table + "_v1");
+                }
+                for (String table : new String[] {"quest_players", "quest_progress", "quest_statistics"}) {
+                    statement.execute("ALTER TABLE " + table + "_v2 RENAME TO " + table);
+                }
+                writeValue(VERSION_KEY, "2");
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } else {
+            // RENAME TABLE swaps all tables atomically
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("""
+                        RENAME TABLE quest_statistics TO quest_statistics_v1, quest_progress TO quest_progress_v1,
+                                     quest_players TO quest_players_v1, quest_players_v2 TO quest_players,
+                                     quest_progress_v2 TO quest_progress, quest_statistics_v2 TO quest_statistics""");
+            }
+            writeValue(VERSION_KEY, "2");
+        }
+        
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM quest_schema WHERE name LIKE ?")) {
+            statement.setString(1, CURSOR_KEY_PREFIX + "%");
+            statement.executeUpdate();
+        }
+    }
+    
+    private void createTables(String suffix) throws SQLException {
+        String uuidType = dialect.uuidType();
+        String tableOptions = dialect.tableOptions();
+        boolean inlineIndexes = dialect.inlineIndexes();
+        
+        String createPlayersTable = """
+            CREATE TABLE IF NOT EXISTS quest_players%1$s (
+                uuid %2$s PRIMARY KEY,
+                username VARCHAR(16) NOT NULL,
+                quests_completed INTEGER DEFAULT 0,
+                quests_active INTEGER DEFAULT 0,
+                last_seen BIGINT NOT NULL,
+                created_at BIGINT NOT NULL%3$s
+            )""".formatted(suffix, uuidType, inlineIndexes ? ",\n    INDEX idx_players_username (username)" : "");
+        
+        String createProgressTable = """
+            CREATE TABLE IF NOT EXISTS quest_progress%1$s (
+                player_uuid %2$s NOT NULL,
+                quest_ordinal INTEGER NOT NULL,
+                progress INTEGER DEFAULT 0,
+                target INTEGER NOT NULL,
+                completed BOOLEAN DEFAULT FALSE,
+                claimed BOOLEAN DEFAULT FALSE,
+                started_at BIGINT NOT NULL,
+                completed_at BIGINT DEFAULT NULL,
+                expires_at BIGINT DEFAULT NULL,
+                data TEXT DEFAULT NULL,
+                PRIMARY KEY (player_uuid, quest_ordinal),%3$s
+                FOREIGN KEY (player_uuid) REFERENCES quest_players%1$s(uuid) ON DELETE CASCADE
+            )%4$s""".formatted(suffix, uuidType,
+                inlineIndexes ? "\n    INDEX idx_progress_quest (quest_ordinal, completed)," : "", tableOptions);
+        
+        String createStatsTable = """
+            CREATE TABLE IF NOT EXISTS quest_statistics%1$s (
+                player_uuid %2$s NOT NULL,
+                quest_ordinal INTEGER NOT NULL,
+                completions INTEGER DEFAULT 1,
+                best_time BIGINT DEFAULT NULL,
+                first_completion BIGINT NOT NULL,
+                last_completion BIGINT NOT NULL,
+                PRIMARY KEY (player_uuid, quest_ordinal),%3$s
+                FOREIGN KEY (player_uuid) REFERENCES quest_players%1$s(uuid) ON DELETE CASCADE
+            )%4$s""".formatted(suffix, uuidType,
+                inlineIndexes ? "\n    INDEX idx_statistics_quest (quest_ordinal)," : "", tableOptions);
+        
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(createPlayersTable);
+            statement.execute(createProgressTable);
+            statement.execute(createStatsTable);
+            
+            if (!inlineIndexes) {
+                // Index names are global in SQLite and H2 and follow their table when it is renamed
+                statement.execute("CREATE INDEX IF NOT EXISTS idx_players_username ON quest_players" + suffix + " (username)");
+                statement.execute("CREATE INDEX IF NOT EXISTS idx_progress_quest ON quest_progress" + suffix + " (quest_ordinal, completed)");
+                statement.execute("CREATE INDEX IF NOT EXISTS idx_statistics_quest ON quest_statistics" + suffix + " (quest_ordinal)");
+            }
+        }
+    }
+    
+    private boolean tableExists(String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, table, new String[] {"TABLE"})) {
+            return tables.next();
+        }
+    }
+    
+    private String readValue(String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT value FROM quest_schema WHERE name = ?")) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+    
+    private void writeValue(String name, String value) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement("UPDATE quest_schema SET value = ? WHERE name = ?")) {
+            update.setString(1, value);
+            update.setString(2, name);
+            if (update.executeUpdate() > 0) return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO quest_schema (name, value) VALUES (?, ?)")) {
+            insert.setString(1, name);
+            insert.setString(2, value);
+            insert.executeUpdate();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface RowCopier {
+        /**
+         * Binds one legacy row to the insert statement
+         * @return The cursor value of the row
+         */
+        String copy(ResultSet row, PreparedStatement insert) throws SQLException;
+    }
+}
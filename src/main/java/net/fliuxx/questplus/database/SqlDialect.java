@@ -0,0 +1,190 @@
+package net.fliuxx.questplus.database;
+
+/**
+ * SQL that differs between the supported backends, chosen once when the database is initialized.
+ * Upserts use each backend's native form so a write probes the primary key once, and take the
+ * same parameters in the same order on every backend.
+ */
+public enum SqlDialect {
+    
+    SQLITE("SQLite", "BLOB", " WITHOUT ROWID", false) {
+        @Override
+        String upsertPlayer() {
+            // REPLACE would delete the row and cascade to the player's progress
+            return """
+                INSERT INTO quest_players (uuid, username, last_seen, created_at)
+                VALUES (?, ?, ?, ?)
+                ON CONFLICT (uuid) DO UPDATE SET username = excluded.username, last_seen = excluded.last_seen""";
+        }
+        
+        @Override
+        String upsertProgress() {
+            return """
+                INSERT INTO quest_progress (player_uuid, quest_ordinal, progress, target, completed, claimed,
+                                          started_at, completed_at, expires_at, data)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (player_uuid, quest_ordinal) DO UPDATE SET
+                    progress = excluded.progress, target = excluded.target, completed = excluded.completed,
+                    claimed = excluded.claimed, started_at = excluded.started_at, completed_at = excluded.completed_at,
+                    expires_at = excluded.expires_at, data = excluded.data""";
+        }
+        
+        @Override
+        String upsertStatistics() {
+            return """
+                INSERT INTO quest_statistics (player_uuid, quest_ordinal, completions, best_time, first_completion, last_completion)
+                VALUES (?, ?, 1, ?, ?, ?)
+                ON CONFLICT (player_uuid, quest_ordinal) DO UPDATE SET
+                    completions = completions + 1,
+                    best_time = CASE WHEN best_time IS NULL OR excluded.best_time < best_time THEN excluded.best_time ELSE best_time END,
+                    last_completion = excluded.last_completion""";
+        }
+        
+        @Override
+        String insertIgnore() {
+            return "INSERT OR IGNORE INTO";
+        }
+    },
+    
+    MYSQL("MySQL", "BINARY(16)", "", true) {
+        @Override
+        String upsertPlayer() {
+            return """
+                INSERT INTO quest_players (uuid, username, last_seen, created_at)
+                VALUES (?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE username = VALUES(username), last_seen = VALUES(last_seen)""";
+        }
+        
+        @Override
+        String upsertProgress() {
+            return """
+                INSERT INTO quest_progress (player_uuid, quest_ordinal, progress, target, completed, claimed,
+                                          started_at, completed_at, expires_at, data)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE
+                    progress = VALUES(progress), target = VALUES(target), completed = VALUES(completed),
+                    claimed = VALUES(claimed), started_at = VALUES(started_at), completed_at = VALUES(completed_at),
+                    expires_at = VALUES(expires_at), data = VALUES(data)""";
+        }
+        
+        @Override
+        String upsertStatistics() {
+            return """
+                INSERT INTO quest_statistics (player_uuid, quest_ordinal, completions, best_time, first_completion, last_completion)
+                VALUES (?, ?, 1, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE
+                    completions = completions + 1,
+                    best_time = CASE WHEN best_time IS NULL OR VALUES(best_time) < best_time THEN VALUES(best_time) ELSE best_time END,
+                    last_completion = VALUES(last_completion)""";
+        }
+        
+        @Override
+        String insertIgnore() {
+            return "INSERT IGNORE INTO";
+        }
+    },
+    
+    H2("H2", "BINARY(16)", "", false) {
+        @Override
+        String upsertPlayer() {
+            // MERGE ... KEY would overwrite created_at
+            return """
+                MERGE INTO quest_players t
+                USING (VALUES (CAST(? AS BINARY(16)), CAST(? AS VARCHAR(16)), CAST(? AS BIGINT), CAST(? AS BIGINT)))
+                    AS s (uuid, username, last_seen, created_at)
+                ON t.uuid = s.uuid
+                WHEN MATCHED THEN UPDATE SET username = s.username, last_seen = s.last_seen
+                WHEN NOT MATCHED THEN INSERT (uuid, username, last_seen, created_at)
+                    VALUES (s.uuid, s.username, s.last_seen, s.created_at)""";
+        }
+        
+        @Override
+        String upsertProgress() {
+            return """
+                MERGE INTO quest_progress (player_uuid, quest_ordinal, progress, target, completed, claimed,
+                                         started_at, completed_at, expires_at, data)
+                KEY (player_uuid, quest_ordinal)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+        }
+        
+        @Override
+        String upsertStatistics() {
+            return """
+                MERGE INTO quest_statistics t
+                USING (VALUES (CAST(? AS BINARY(16)), CAST(? AS INTEGER), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT)))
+                    AS s (player_uuid, quest_ordinal, best_time, first_completion, last_completion)
+                ON t.player_uuid = s.player_uuid AND t.quest_ordinal = s.quest_ordinal
+                WHEN MATCHED THEN UPDATE SET
+                    completions = t.completions + 1,
+                    best_time = CASE WHEN t.best_time IS NULL OR s.best_time < t.best_time THEN s.best_time ELSE t.best_time END,
+                    last_completion = s.last_completion
+                WHEN NOT MATCHED THEN INSERT (player_uuid, quest_ordinal, completions, best_time, first_completion, last_completion)
+                    VALUES (s.player_uuid, s.quest_ordinal, 1, s.best_time, s.first_completion, s.last_completion)""";
+        }
+        
+        @Override
+        String insertIgnore() {
+            // Migrated rows are copied from the same source, overwriting a row already copied is harmless
+            return "MERGE INTO";
+        }
+    };
+    
+    private final String displayName;
+    private final String uuidType;
+    private final String tableOptions;
+    private final boolean inlineIndexes;
+    
+    SqlDialect(String displayName, String uuidType, String tableOptions, boolean inlineIndexes) {
+        this.displayName = displayName;
+        this.uuidType = uuidType;
+        this.tableOptions = tableOptions;
+        this.inlineIndexes = inlineIndexes;
+    }
+    
+    /**
+     * Parameters: uuid, username, last_seen, created_at
+     */
+    abstract String upsertPlayer();
+    
+    /**
+     * Parameters: player_uuid, quest_ordinal, progress, target, completed, claimed, started_at,
+     * completed_at, expires_at, data
+     */
+    abstract String upsertProgress();
+    
+    /**
+     * Records one completion. Parameters: player_uuid, quest_ordinal, completion time,
+     * completed at, completed at
+     */
+    abstract String upsertStatistics();
+    
+    /**
+     * @return The start of an insert that skips rows whose key already exists, up to the table name
+     */
+    abstract String insertIgnore();
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * @return The column type of player ids
+     */
+    String uuidType() {
+        return uuidType;
+    }
+    
+    /**
+     * @return Appended to CREATE TABLE statements of tables keyed by a composite primary key
+     */
+    String tableOptions() {
+        return tableOptions;
+    }
+    
+    /**
+     * @return Whether indexes are declared inside CREATE TABLE rather than with CREATE INDEX
+     */
+    boolean inlineIndexes() {
+        return inlineIndexes;
+    }
+}
@@ -151,10 +151,7 @@ public class QuestGUI implements Listener {
     }
     
     private void showActiveQuests(Player player, Inventory inventory, QuestGUIState state) {
-        List<QuestProgress> activeQuests = plugin.getQuestManager().getPlayerProgress(player)
-                .stream()
-                .filter(progress -> !progress.isCompleted())
-                .toList();
+        List<QuestProgress> activeQuests = plugin.getQuestManager().getPlayerState(player).getActiveQuests();
         
         int startIndex = state.getPage() * 36;
         int endIndex = Math.min(startIndex + 36, activeQuests.size());
@@ -163,7 +160,7 @@ public class QuestGUI implements Listener {
         
         for (int i = startIndex; i < endIndex; i++) {
             QuestProgress progress = activeQuests.get(i);
-            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestId());
+            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestOrdinal());
             if (quest != null) {
                 ItemStack item = createQuestProgressItem(quest, progress, QuestItemType.ACTIVE);
                 inventory.setItem(i - startIndex, item);
@@ -172,10 +169,7 @@ public class QuestGUI implements Listener {
     }
     
     private void showCompletedQuests(Player player, Inventory inventory, QuestGUIState state) {
-        List<QuestProgress> completedQuests = plugin.getQuestManager().getPlayerProgress(player)
-                .stream()
-                .filter(QuestProgress::isCompleted)
-                .toList();
+        List<QuestProgress> completedQuests = plugin.getQuestManager().getPlayerState(player).getCompletedQuests();
         
         int startIndex = state.getPage() * 36;
         int endIndex = Math.min(startIndex + 36, completedQuests.size());
@@ -184,7 +178,7 @@ public class QuestGUI implements Listener {
         
         for (int i = startIndex; i < endIndex; i++) {
             QuestProgress progress = completedQuests.get(i);
-            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestId());
+            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestOrdinal());
             if (quest != null) {
                 ItemStack item = createQuestProgressItem(quest, progress, 
                         progress.isClaimed() ? QuestItemType.CLAIMED : QuestItemType.COMPLETED);
@@ -382,10 +376,7 @@ public class QuestGUI implements Listener {
                 }
             }
             case COMPLETED -> {
-                List<QuestProgress> completedQuests = plugin.getQuestManager().getPlayerProgress(player)
-                        .stream()
-                        .filter(QuestProgress::isCompleted)
-                        .toList();
+                List<QuestProgress> completedQuests = plugin.getQuestManager().getPlayerState(player).getCompletedQuests();
                 int questIndex = state.getPage() * 36 + slot;
                 if (questIndex < completedQuests.size()) {
                     QuestProgress progress = completedQuests.get(questIndex);
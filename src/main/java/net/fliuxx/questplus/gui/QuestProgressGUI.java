@@ -38,11 +38,7 @@ public class QuestProgressGUI implements Listener {
     }
     
     public void openProgressGUI(Player player, String questId) {
-        QuestProgress progress = plugin.getQuestManager().getPlayerProgress(player)
-                .stream()
-                .filter(p -> p.getQuestId().equals(questId))
-                .findFirst()
-                .orElse(null);
+        QuestProgress progress = plugin.getQuestManager().getQuestProgress(player, questId);
         
         if (progress == null) {
             plugin.getMessages().sendMessage(player, "quest-not-found");
@@ -221,11 +217,7 @@ public class QuestProgressGUI implements Listener {
         int slot = event.getSlot();
         
         if (slot == 14) { // Reward item
-            QuestProgress progress = plugin.getQuestManager().getPlayerProgress(player)
-                    .stream()
-                    .filter(p -> p.getQuestId().equals(questId))
-                    .findFirst()
-                    .orElse(null);
+            QuestProgress progress = plugin.getQuestManager().getQuestProgress(player, questId);
             
             if (progress != null && progress.isCompleted() && !progress.isClaimed()) {
                 if (plugin.getQuestManager().claimReward(player, questId)) {
@@ -2,13 +2,24 @@ package net.fliuxx.questplus.integration;
 
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import net.fliuxx.questplus.QuestPlus;
+import net.fliuxx.questplus.database.QuestDatabase;
+import net.fliuxx.questplus.quest.PlayerQuestState;
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestManager;
 import net.fliuxx.questplus.quest.QuestProgress;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * PlaceholderAPI expansion for QuestPlus
@@ -16,18 +27,38 @@ import java.util.List;
  * Available placeholders:
  * - %questplus_active% - Number of active quests
  * - %questplus_completed% - Number of completed quests
+ * - %questplus_completed_<type>% - Number of completed quests of a quest type
+ * - %questplus_claimed% - Number of completed quests whose reward was claimed
  * - %questplus_available% - Number of available quests
  * - %questplus_progress_<quest-id>% - Progress of specific quest
  * - %questplus_percentage_<quest-id>% - Percentage of specific quest
  * - %questplus_status_<quest-id>% - Status of specific quest
  * - %questplus_time_left_<quest-id>% - Time left for quest
+ * 
+ * Scoreboards resolve the same placeholders for every player several times a second. Parameters
+ * are parsed once into a {@link PlaceholderKey}, and values of online players are kept in a
+ * snapshot of their quest state until it changes. Values of offline players are read
+ * asynchronously and shown from the last read, placeholders never wait on the database.
  */
 public class PlaceholderAPIExpansion extends PlaceholderExpansion {
     
+    private static final long SNAPSHOT_MILLIS = 1000L; // Bounds values that change with time, like available quests
+    private static final long REFRESH_MILLIS = 30000L;
+    private static final long EXPIRE_MILLIS = 300000L; // Offline values not requested for this long are dropped
+    
     private final QuestPlus plugin;
+    private final Map<String, PlaceholderKey> compiledKeys;
+    private final Map<PlayerQuestState, Snapshot> snapshots; // Dropped with the state when the player's session ends
+    private final Map<OfflineKey, CachedRead> reads;
+    private final Set<OfflineKey> pendingReads;
+    private volatile long lastSweep;
     
     public PlaceholderAPIExpansion(QuestPlus plugin) {
         this.plugin = plugin;
+        this.compiledKeys = new ConcurrentHashMap<>();
+        this.snapshots = Collections.synchronizedMap(new WeakHashMap<>());
+        this.reads = new ConcurrentHashMap<>();
+        this.pendingReads = ConcurrentHashMap.newKeySet();
     }
     
     @Override
@@ -60,105 +91,168 @@ public class PlaceholderAPIExpansion extends PlaceholderExpansion {
             return "0";
         }
         
-        switch (params.toLowerCase()) {
-            case "active" -> {
-                if (player.isOnline()) {
-                    return String.valueOf(plugin.getQuestManager().getActiveQuestCount(player.getPlayer()));
-                } else {
-                    return String.valueOf(plugin.getDatabaseManager().getQuestDatabase().getActiveQuestCount(player.getUniqueId()));
-                }
-            }
-            case "completed" -> {
-                return String.valueOf(plugin.getDatabaseManager().getQuestDatabase().getCompletedQuestCount(player.getUniqueId()));
-            }
-            case "available" -> {
-                if (player.isOnline()) {
-                    return String.valueOf(plugin.getQuestManager().getAvailableQuests(player.getPlayer()).size());
-                } else {
-                    return "0"; // Can't calculate available quests for offline players
-                }
-            }
+        PlaceholderKey key = compile(params);
+        if (key == null) {
+            return null; // Placeholder not found
         }
         
-        // Handle quest-specific placeholders
-        if (params.startsWith("progress_")) {
-            String questId = params.substring("progress_".length());
-            QuestProgress progress = getQuestProgress(player, questId);
-            return progress != null ? String.valueOf(progress.getProgress()) : "0";
+        Player online = player.getPlayer();
+        if (online == null) {
+            return resolveOffline(player.getUniqueId(), key);
         }
-        
-        if (params.startsWith("target_")) {
-            String questId = params.substring("target_".length());
-            QuestProgress progress = getQuestProgress(player, questId);
-            return progress != null ? String.valueOf(progress.getTarget()) : "0";
+        if (!key.kind().isSnapshotted()) {
+            return resolve(online, key);
         }
-        
-        if (params.startsWith("percentage_")) {
-            String questId = params.substring("percentage_".length());
-            QuestProgress progress = getQuestProgress(player, questId);
-            return progress != null ? String.format("%.1f", progress.getProgressPercentage()) : "0.0";
+        return snapshot(plugin.getQuestManager().getPlayerState(online)).values()
+                .computeIfAbsent(key, k -> resolve(online, k));
+    }
+    
+    private PlaceholderKey compile(String params) {
+        PlaceholderKey key = compiledKeys.get(params);
+        if (key == null) {
+            key = PlaceholderKey.parse(params, plugin.getQuestManager().getQuestIds());
+            // A reload may add quests unknown so far, only keys that resolved are kept
+            if (key != null && (key.questId() == null || key.questOrdinal() >= 0)) {
+                compiledKeys.put(params, key);
+            }
         }
-        
-        if (params.startsWith("status_")) {
-            String questId = params.substring("status_".length());
-            QuestProgress progress = getQuestProgress(player, questId);
-            if (progress == null) {
-                return "Not Started";
-            } else if (progress.isCompleted()) {
-                return progress.isClaimed() ? "Claimed" : "Completed";
-            } else if (progress.isExpired()) {
-                return "Expired";
-            } else {
-                return "Active";
+        return key;
+    }
+    
+    /**
+     * Gets the snapshot of the player's values, starting a new one when the state changed since it was taken
+     */
+    private Snapshot snapshot(PlayerQuestState state) {
+        int revision = state.getRevision(); // Read first, values resolved after a change are not kept under it
+        long now = System.currentTimeMillis();
+        synchronized (snapshots) {
+            Snapshot snapshot = snapshots.get(state);
+            if (snapshot == null || snapshot.revision() != revision || now - snapshot.takenAt() > SNAPSHOT_MILLIS) {
+                snapshot = new Snapshot(revision, now, new ConcurrentHashMap<>());
+                snapshots.put(state, snapshot);
             }
+            return snapshot;
         }
-        
-        if (params.startsWith("time_left_")) {
-            String questId = params.substring("time_left_".length());
-            QuestProgress progress = getQuestProgress(player, questId);
-            if (progress == null || progress.getExpiresAt() == null) {
-                return "No Limit";
+    }
+    
+    private String resolve(Player player, PlaceholderKey key) {
+        QuestManager questManager = plugin.getQuestManager();
+        return switch (key.kind()) {
+            case ACTIVE -> String.valueOf(questManager.getActiveQuestCount(player));
+            case COMPLETED -> String.valueOf(questManager.getCompletedQuestCount(player));
+            case COMPLETED_TYPE -> String.valueOf(questManager.getCompletedQuestCount(player, key.type()));
+            case CLAIMED -> String.valueOf(questManager.getClaimedQuestCount(player));
+            case AVAILABLE -> String.valueOf(questManager.getAvailableQuests(player).size());
+            default -> resolveQuest(key, questManager.getPlayerState(player).getProgress(key.questOrdinal()));
+        };
+    }
+    
+    private String resolveOffline(UUID playerUuid, PlaceholderKey key) {
+        return switch (key.kind()) {
+            case ACTIVE -> String.valueOf(cachedRead(new OfflineKey(playerUuid, key.kind(), -1), 0,
+                    () -> getDatabase().getActiveQuestCountAsync(playerUuid)));
+            case COMPLETED -> String.valueOf(cachedRead(new OfflineKey(playerUuid, key.kind(), -1), 0,
+                    () -> getDatabase().getCompletedQuestCountAsync(playerUuid)));
+            case CLAIMED, COMPLETED_TYPE -> "0"; // Only counted for loaded players
+            case AVAILABLE -> "0"; // Can't calculate available quests for offline players
+            case NAME, DESCRIPTION, TYPE -> resolveQuest(key, null);
+            default -> {
+                // Every placeholder about the same quest shares one read of its progress
+                QuestProgress progress = key.questOrdinal() < 0 ? null
+                        : cachedRead(new OfflineKey(playerUuid, PlaceholderKey.Kind.PROGRESS, key.questOrdinal()), null,
+                                () -> getDatabase().getQuestProgressAsync(playerUuid, key.questId()));
+                yield resolveQuest(key, progress);
             }
-            
-            long timeLeft = progress.getTimeRemaining();
-            if (timeLeft <= 0) {
-                return "Expired";
+        };
+    }
+    
+    /**
+     * Resolves a placeholder about one quest
+     * @param progress The player's progress for the quest, null if they have none
+     */
+    private String resolveQuest(PlaceholderKey key, QuestProgress progress) {
+        switch (key.kind()) {
+            case PROGRESS -> {
+                return progress != null ? String.valueOf(progress.getProgress()) : "0";
+            }
+            case TARGET -> {
+                return progress != null ? String.valueOf(progress.getTarget()) : "0";
+            }
+            case PERCENTAGE -> {
+                return progress != null ? String.format("%.1f", progress.getProgressPercentage()) : "0.0";
+            }
+            case STATUS -> {
+                if (progress == null) {
+                    return "Not Started";
+                } else if (progress.isCompleted()) {
+                    return progress.isClaimed() ? "Claimed" : "Completed";
+                } else if (progress.isExpired()) {
+                    return "Expired";
+                } else {
+                    return "Active";
+                }
+            }
+            case TIME_LEFT -> {
+                if (progress == null || progress.getExpiresAt() == null) {
+                    return "No Limit";
+                }
+                
+                long timeLeft = progress.getTimeRemaining();
+                if (timeLeft <= 0) {
+                    return "Expired";
+                }
+                
+                return formatTime(timeLeft / 1000);
+            }
+            case NAME -> {
+                Quest quest = plugin.getQuestManager().getQuest(key.questId());
+                return quest != null ? quest.getName() : "Unknown Quest";
+            }
+            case DESCRIPTION -> {
+                Quest quest = plugin.getQuestManager().getQuest(key.questId());
+                return quest != null ? quest.getDescription() : "Unknown Quest";
+            }
+            case TYPE -> {
+                Quest quest = plugin.getQuestManager().getQuest(key.questId());
+                return quest != null ? quest.getType().getDisplayName() : "Unknown";
+            }
+            default -> {
+                return null;
             }
-            
-            return formatTime(timeLeft / 1000);
         }
-        
-        if (params.startsWith("name_")) {
-            String questId = params.substring("name_".length());
-            Quest quest = plugin.getQuestManager().getQuest(questId);
-            return quest != null ? quest.getName() : "Unknown Quest";
+    }
+    
+    /**
+     * Returns the last value read for the key, starting a new read when there is none yet or it is stale
+     * @param fallback Value shown until the first read completes
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T cachedRead(OfflineKey key, T fallback, Supplier<CompletableFuture<T>> read) {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep > REFRESH_MILLIS) {
+            lastSweep = now;
+            reads.values().removeIf(cached -> now - cached.requestedAt() > EXPIRE_MILLIS);
         }
         
-        if (params.startsWith("description_")) {
-            String questId = params.substring("description_".length());
-            Quest quest = plugin.getQuestManager().getQuest(questId);
-            return quest != null ? quest.getDescription() : "Unknown Quest";
+        CachedRead cached = reads.get(key);
+        if (cached != null) {
+            cached.requestedAt = now;
         }
-        
-        if (params.startsWith("type_")) {
-            String questId = params.substring("type_".length());
-            Quest quest = plugin.getQuestManager().getQuest(questId);
-            return quest != null ? quest.getType().getDisplayName() : "Unknown";
+        boolean stale = cached == null || now - cached.readAt() > REFRESH_MILLIS;
+        if (stale && pendingReads.add(key)) {
+            read.get().whenComplete((value, error) -> {
+                if (error == null) {
+                    long readAt = System.currentTimeMillis();
+                    reads.put(key, new CachedRead(value, readAt, readAt));
+                }
+                pendingReads.remove(key);
+            });
         }
-        
-        return null; // Placeholder not found
+        return cached != null ? (T) cached.value() : fallback;
     }
     
-    private QuestProgress getQuestProgress(OfflinePlayer player, String questId) {
-        if (player.isOnline()) {
-            List<QuestProgress> progress = plugin.getQuestManager().getPlayerProgress(player.getPlayer());
-            return progress.stream()
-                    .filter(p -> p.getQuestId().equals(questId))
-                    .findFirst()
-                    .orElse(null);
-        } else {
-            return plugin.getDatabaseManager().getQuestDatabase().getQuestProgress(player.getUniqueId(), questId);
-        }
+    private QuestDatabase getDatabase() {
+        return plugin.getDatabaseManager().getQuestDatabase();
     }
     
     private String formatTime(long seconds) {
@@ -176,4 +270,38 @@ public class PlaceholderAPIExpansion extends PlaceholderExpansion {
             return days + "d " + hours + "h";
         }
     }
+    
+    private record Snapshot(int revision, long takenAt, Map<PlaceholderKey, String> values) {
+    }
+    
+    /**
+     * An offline read, placeholders about one quest share the read of its progress
+     */
+    private record OfflineKey(UUID playerUuid, PlaceholderKey.Kind read, int questOrdinal) {
+    }
+    
+    private static final class CachedRead {
+        
+        private final Object value;
+        private final long readAt;
+        private volatile long requestedAt;
+        
+        CachedRead(Object value, long readAt, long requestedAt) {
+            this.value = value;
+            this.readAt = readAt;
+            this.requestedAt = requestedAt;
+        }
+        
+        Object value() {
+            return value;
+        }
+        
+        long readAt() {
+            return readAt;
+        }
+        
+        long requestedAt() {
+            return requestedAt;
+        }
+    }
 }
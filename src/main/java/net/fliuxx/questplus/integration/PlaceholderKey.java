@@ -0,0 +1,72 @@
+package net.fliuxx.questplus.integration;
+
+import net.fliuxx.questplus.database.QuestIdDictionary;
+import net.fliuxx.questplus.quest.QuestType;
+
+/**
+ * A placeholder parsed once from its parameters, with the quest or quest type it refers to resolved
+ * @param questId The quest id, null for placeholders not about one quest
+ * @param questOrdinal The quest ordinal, -1 when there is none or the quest is unknown
+ * @param type The quest type of completed_ placeholders, null otherwise
+ */
+record PlaceholderKey(Kind kind, String questId, int questOrdinal, QuestType type) {
+    
+    enum Kind {
+        ACTIVE("active", true),
+        COMPLETED("completed", true),
+        CLAIMED("claimed", true),
+        AVAILABLE("available", true),
+        COMPLETED_TYPE("completed_", true),
+        PROGRESS("progress_", true),
+        TARGET("target_", true),
+        PERCENTAGE("percentage_", true),
+        STATUS("status_", true),
+        TIME_LEFT("time_left_", false), // Changes every second
+        NAME("name_", false), // Not about the player
+        DESCRIPTION("description_", false),
+        TYPE("type_", false);
+        
+        private final String name;
+        private final boolean snapshotted;
+        
+        Kind(String name, boolean snapshotted) {
+            this.name = name;
+            this.snapshotted = snapshotted;
+        }
+        
+        /**
+         * @return Whether values are kept in the player's snapshot until their quest state changes
+         */
+        boolean isSnapshotted() {
+            return snapshotted;
+        }
+    }
+    
+    /**
+     * Parses placeholder parameters, without the questplus_ prefix
+     * @return The key, or null if the parameters are no placeholder of this expansion
+     */
+    static PlaceholderKey parse(String params, QuestIdDictionary questIds) {
+        for (Kind kind : Kind.values()) {
+            if (!kind.name.endsWith("_") && kind.name.equalsIgnoreCase(params)) {
+                return new PlaceholderKey(kind, null, -1, null);
+            }
+        }
+        
+        for (Kind kind : Kind.values()) {
+            if (!kind.name.endsWith("_") || !params.startsWith(kind.name)) continue;
+            
+            String argument = params.substring(kind.name.length());
+            if (kind == Kind.COMPLETED_TYPE) {
+                try {
+                    return new PlaceholderKey(kind, null, -1, QuestType.valueOf(argument.toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+            return new PlaceholderKey(kind, argument, questIds.ordinalOf(argument), null);
+        }
+        
+        return null;
+    }
+}
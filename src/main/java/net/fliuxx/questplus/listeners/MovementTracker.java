@@ -0,0 +1,181 @@
+package net.fliuxx.questplus.listeners;
+
+import net.fliuxx.questplus.QuestPlus;
+import net.fliuxx.questplus.quest.QuestManager;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
+import net.fliuxx.questplus.quest.signal.SignalKind;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Coalesces player movement for travel quests.
+ * Moves are folded into one displacement per player per tick, and the accumulated
+ * distance is published as one travel signal per mode every flush interval.
+ * Players with statistic-driven quests receive a {@link SignalKind#STATISTIC_POLL} signal on the same interval.
+ */
+public class MovementTracker implements Listener {
+    
+    private static final int MODE_WALK = 0;
+    private static final int MODE_SWIM = 1;
+    private static final int MODE_FLY = 2;
+    
+    private final QuestPlus plugin;
+    private final Map<UUID, MovementSample> samples; // Main thread only
+    
+    public MovementTracker(QuestPlus plugin) {
+        this.plugin = plugin;
+        this.samples = new HashMap<>();
+        
+        // Movement is only sampled while someone has a movement-based travel quest
+        plugin.getEventRegistry().bind(PlayerMoveEvent.class, this::onPlayerMove, true,
+                SignalKind.TRAVEL_WALK, SignalKind.TRAVEL_SWIM, SignalKind.TRAVEL_FLY);
+        startFlushTask();
+    }
+    
+    private void onPlayerMove(PlayerMoveEvent event) {
+        // Head rotation only
+        if (!event.hasChangedPosition()) return;
+        
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null || from.getWorld() != to.getWorld()) return;
+        
+        Player player = event.getPlayer();
+        if (!hasTravelQuest(player)) {
+            return;
+        }
+        
+        MovementSample sample = samples.computeIfAbsent(player.getUniqueId(), k -> new MovementSample());
+        sample.record(Bukkit.getCurrentTick(), from, to, getMode(player));
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        // Publish what is pending before the player's progress is unloaded
+        MovementSample sample = samples.remove(event.getPlayer().getUniqueId());
+        if (sample != null) {
+            flush(event.getPlayer(), sample);
+        }
+    }
+    
+    private boolean hasTravelQuest(Player player) {
+        QuestManager questManager = plugin.getQuestManager();
+        return !questManager.getActiveProgress(player, SignalKind.TRAVEL_WALK).isEmpty()
+                || !questManager.getActiveProgress(player, SignalKind.TRAVEL_SWIM).isEmpty()
+                || !questManager.getActiveProgress(player, SignalKind.TRAVEL_FLY).isEmpty();
+    }
+    
+    private int getMode(Player player) {
+        if (player.isFlying() || player.isGliding()) {
+            return MODE_FLY;
+        }
+        
+        return player.isSwimming() ? MODE_SWIM : MODE_WALK;
+    }
+    
+    private void startFlushTask() {
+        int interval = plugin.getConfigManager().getMovementFlushInterval();
+        
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                Iterator<Map.Entry<UUID, MovementSample>> iterator = samples.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<UUID, MovementSample> entry = iterator.next();
+                    Player player = Bukkit.getPlayer(entry.getKey());
+                    if (player == null) {
+                        iterator.remove();
+                        continue;
+                    }
+                    
+                    flush(player, entry.getValue());
+                }
+                
+                for (Player player : Bukkit.getOnlinePlayers()) {
+                    if (!plugin.getQuestManager().getActiveProgress(player, SignalKind.STATISTIC_POLL).isEmpty()) {
+                        plugin.getQuestManager().handleSignal(QuestSignal.ofAmount(SignalKind.STATISTIC_POLL, player, 0));
+                    }
+                }
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+    
+    private void flush(Player player, MovementSample sample) {
+        sample.closeTick();
+        publish(player, SignalKind.TRAVEL_WALK, sample.walked);
+        publish(player, SignalKind.TRAVEL_SWIM, sample.swum);
+        publish(player, SignalKind.TRAVEL_FLY, sample.flown);
+        sample.walked = 0;
+        sample.swum = 0;
+        sample.flown = 0;
+    }
+    
+    private void publish(Player player, SignalKind kind, double distance) {
+        int centimeters = (int) (distance * 100); // Centimeters for precision
+        if (centimeters > 0) {
+            plugin.getQuestManager().handleSignal(QuestSignal.ofAmount(kind, player, centimeters));
+        }
+    }
+    
+    /**
+     * Per-player accumulator kept in primitive fields to avoid allocating per move
+     */
+    private static final class MovementSample {
+        
+        private int tick = -1;
+        private int mode;
+        private double startX, startY, startZ;
+        private double endX, endY, endZ;
+        
+        private double walked;
+        private double swum;
+        private double flown;
+        
+        private void record(int currentTick, Location from, Location to, int currentMode) {
+            // A new tick, or a gap since the last move (teleport), starts a new segment
+            if (currentTick != tick || from.getX() != endX || from.getY() != endY || from.getZ() != endZ) {
+                closeTick();
+                tick = currentTick;
+                mode = currentMode;
+                startX = from.getX();
+                startY = from.getY();
+                startZ = from.getZ();
+            }
+            
+            endX = to.getX();
+            endY = to.getY();
+            endZ = to.getZ();
+        }
+        
+        private void closeTick() {
+            if (tick == -1) return;
+            tick = -1;
+            
+            double dx = endX - startX;
+            double dy = endY - startY;
+            double dz = endZ - startZ;
+            double distanceSquared = dx * dx + dy * dy + dz * dz;
+            if (distanceSquared == 0) return;
+            
+            // One square root per player per tick rather than per move
+            double distance = Math.sqrt(distanceSquared);
+            switch (mode) {
+                case MODE_SWIM -> swum += distance;
+                case MODE_FLY -> flown += distance;
+                default -> walked += distance;
+            }
+        }
+    }
+}
@@ -4,7 +4,9 @@ import net.fliuxx.questplus.QuestPlus;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
@@ -18,27 +20,38 @@ public class PlayerListener implements Listener {
         this.plugin = plugin;
     }
     
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        // Load quest progress on the login thread, so it is ready when the player joins
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        plugin.getQuestManager().prefetchPlayerProgress(event.getUniqueId(), event.getName());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getQuestManager().discardPrefetchedProgress(event.getPlayer().getUniqueId());
+        }
+    }
+    
     @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerJoin(PlayerJoinEvent event) {
-        // Load player quest progress asynchronously to avoid blocking the main thread
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                plugin.getQuestManager().loadPlayerProgress(event.getPlayer());
-            } catch (Exception e) {
-                plugin.getLogger().severe("Failed to load quest progress for " + event.getPlayer().getName() + ": " + e.getMessage());
-            }
-        });
+        try {
+            plugin.getQuestManager().loadPlayerProgress(event.getPlayer());
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to load quest progress for " + event.getPlayer().getName() + ": " + e.getMessage());
+        }
     }
     
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerQuit(PlayerQuitEvent event) {
-        // Save and unload player quest progress asynchronously
-        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                plugin.getQuestManager().unloadPlayerProgress(event.getPlayer());
-            } catch (Exception e) {
-                plugin.getLogger().severe("Failed to save quest progress for " + event.getPlayer().getName() + ": " + e.getMessage());
-            }
-        });
+        // Apply progress still buffered for this tick, then unload; saving only queues the writes,
+        // so it happens right away and is ordered before the player's next login
+        plugin.getQuestManager().flushPendingProgress(event.getPlayer());
+        try {
+            plugin.getQuestManager().unloadPlayerProgress(event.getPlayer());
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to save quest progress for " + event.getPlayer().getName() + ": " + e.getMessage());
+        }
     }
 }
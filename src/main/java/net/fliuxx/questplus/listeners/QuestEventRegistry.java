@@ -0,0 +1,133 @@
+package net.fliuxx.questplus.listeners;
+
+import net.fliuxx.questplus.QuestPlus;
+import net.fliuxx.questplus.quest.signal.SignalKind;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Registers quest event handlers with Bukkit only while some active quest needs them.
+ * Every active quest holds a reference on the signal kinds it is indexed under; a handler
+ * is registered when the first reference on one of the kinds it produces is taken and
+ * unregistered from the HandlerList once the last one is released. Main thread only.
+ */
+public class QuestEventRegistry {
+    
+    private final QuestPlus plugin;
+    private final AtomicIntegerArray references; // Indexed by signal kind ordinal
+    private final List<Binding<?>> bindings;
+    
+    public QuestEventRegistry(QuestPlus plugin) {
+        this.plugin = plugin;
+        this.references = new AtomicIntegerArray(SignalKind.values().length);
+        this.bindings = new CopyOnWriteArrayList<>();
+    }
+    
+    /**
+     * Binds a handler that is registered while any of the given signal kinds is referenced
+     * @param eventClass The Bukkit event class to listen to
+     * @param handler The handler, only invoked with instances of the event class
+     * @param ignoreCancelled Whether cancelled events are skipped
+     * @param demandedBy Signal kinds the handler produces, whose references keep it registered
+     */
+    public <T extends Event> void bind(Class<T> eventClass, Consumer<T> handler, boolean ignoreCancelled,
+                                       SignalKind... demandedBy) {
+        bindings.add(new Binding<>(eventClass, handler, ignoreCancelled, Set.of(demandedBy)));
+        reconcile();
+    }
+    
+    /**
+     * Takes a reference on a signal kind, called when a quest starts consuming it
+     */
+    public void acquire(SignalKind kind) {
+        if (references.incrementAndGet(kind.ordinal()) == 1) {
+            reconcile();
+        }
+    }
+    
+    /**
+     * Releases a reference on a signal kind, called when a quest stops consuming it
+     * @throws IllegalStateException If no reference on the kind is held
+     */
+    public void release(SignalKind kind) {
+        int previous = references.getAndUpdate(kind.ordinal(), count -> count > 0 ? count - 1 : count);
+        if (previous == 0) {
+            throw new IllegalStateException("Released a reference on " + kind + " that was not held");
+        }
+        if (previous == 1) {
+            reconcile();
+        }
+    }
+    
+    private boolean isDemanded(Binding<?> binding) {
+        for (SignalKind kind : binding.demandedBy) {
+            if (references.get(kind.ordinal()) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void reconcile() {
+        if (!plugin.isEnabled()) return;
+        
+        for (Binding<?> binding : bindings) {
+            boolean demanded = isDemanded(binding);
+            if (demanded && !binding.registered) {
+                binding.register();
+            } else if (!demanded && binding.registered) {
+                binding.unregister();
+            }
+        }
+    }
+    
+    private final class Binding<T extends Event> {
+        
+        private final Class<T> eventClass;
+        private final Consumer<T> handler;
+        private final boolean ignoreCancelled;
+        private final Set<SignalKind> demandedBy;
+        private final Listener listener; // Identity used to unregister this binding only
+        private boolean registered;
+        
+        private Binding(Class<T> eventClass, Consumer<T> handler, boolean ignoreCancelled, Set<SignalKind> demandedBy) {
+            this.eventClass = eventClass;
+            this.handler = handler;
+            this.ignoreCancelled = ignoreCancelled;
+            this.demandedBy = demandedBy;
+            this.listener = new Listener() {};
+        }
+        
+        private void register() {
+            Bukkit.getPluginManager().registerEvent(eventClass, listener, EventPriority.MONITOR, (ignored, event) -> {
+                // Subclasses sharing the handler list of other events also arrive here
+                if (eventClass.isInstance(event)) {
+                    handler.accept(eventClass.cast(event));
+                }
+            }, plugin, ignoreCancelled);
+            registered = true;
+        }
+        
+        private void unregister() {
+            try {
+                Method method = eventClass.getMethod("getHandlerList");
+                HandlerList handlerList = (HandlerList) method.invoke(null);
+                handlerList.unregister(listener);
+                registered = false;
+            } catch (ReflectiveOperationException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not unregister handler for " + eventClass.getSimpleName(), e);
+            }
+        }
+    }
+}
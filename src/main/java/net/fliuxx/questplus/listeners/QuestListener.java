@@ -1,13 +1,16 @@
 package net.fliuxx.questplus.listeners;
 
 import net.fliuxx.questplus.QuestPlus;
-import net.fliuxx.questplus.quest.Quest;
-import net.fliuxx.questplus.quest.QuestProgress;
-import net.fliuxx.questplus.quest.types.AbstractQuestType;
+import net.fliuxx.questplus.quest.QuestManager;
+import net.fliuxx.questplus.quest.region.QuestRegion;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
+import net.fliuxx.questplus.quest.signal.SignalKind;
+import org.bukkit.Location;
+import org.bukkit.Statistic;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.entity.EntityPickupItemEvent;
@@ -15,125 +18,132 @@ import org.bukkit.event.inventory.CraftItemEvent;
 import org.bukkit.event.inventory.FurnaceExtractEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.*;
-
-import java.util.List;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.MerchantInventory;
 
 /**
- * Listens for events that can progress quests
+ * Handles events that can progress quests.
+ * Each event is converted once into a {@link QuestSignal} and handed to the quest manager,
+ * quest handlers never see the raw event. Handlers are bound to the event registry, which
+ * only registers them with Bukkit while at least one active quest consumes their signals.
  */
-public class QuestListener implements Listener {
+public class QuestListener {
     
-    private final QuestPlus plugin;
+    private final QuestManager questManager;
     
     public QuestListener(QuestPlus plugin) {
-        this.plugin = plugin;
+        this.questManager = plugin.getQuestManager();
+        
+        QuestEventRegistry registry = plugin.getEventRegistry();
+        registry.bind(EntityPickupItemEvent.class, this::onItemPickup, true, SignalKind.ITEM_OBTAIN);
+        registry.bind(CraftItemEvent.class, this::onCraftItem, true, SignalKind.ITEM_OBTAIN);
+        registry.bind(FurnaceExtractEvent.class, this::onFurnaceExtract, true, SignalKind.ITEM_OBTAIN);
+        registry.bind(EntityDeathEvent.class, this::onEntityDeath, true, SignalKind.ENTITY_KILL);
+        registry.bind(BlockBreakEvent.class, this::onBlockBreak, true, SignalKind.BLOCK_BREAK);
+        registry.bind(PlayerMoveEvent.class, this::onPlayerMove, true, SignalKind.MOVE, SignalKind.REGION_ENTER);
+        registry.bind(PlayerStatisticIncrementEvent.class, this::onStatisticIncrement, true, SignalKind.JUMP);
+        registry.bind(PlayerFishEvent.class, this::onPlayerFish, true, SignalKind.FISH_CATCH);
+        registry.bind(PlayerInteractEntityEvent.class, this::onPlayerInteractEntity, true, SignalKind.ENTITY_INTERACT);
+        registry.bind(InventoryClickEvent.class, this::onInventoryClick, true, SignalKind.MERCHANT_TRADE);
     }
     
     // Item Collection Events
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onItemPickup(EntityPickupItemEvent event) {
+    private void onItemPickup(EntityPickupItemEvent event) {
         if (!(event.getEntity() instanceof Player player)) return;
-        processQuestEvent(player, event);
+        
+        ItemStack item = event.getItem().getItemStack();
+        questManager.handleSignal(QuestSignal.ofMaterial(SignalKind.ITEM_OBTAIN, player, item.getType(), item.getAmount(), null));
     }
     
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onCraftItem(CraftItemEvent event) {
+    private void onCraftItem(CraftItemEvent event) {
         if (!(event.getWhoClicked() instanceof Player player)) return;
-        processQuestEvent(player, event);
+        
+        ItemStack item = event.getCurrentItem();
+        if (item == null) return;
+        questManager.handleSignal(QuestSignal.ofMaterial(SignalKind.ITEM_OBTAIN, player, item.getType(), item.getAmount(), null));
     }
     
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onFurnaceExtract(FurnaceExtractEvent event) {
-        processQuestEvent(event.getPlayer(), event);
+    private void onFurnaceExtract(FurnaceExtractEvent event) {
+        questManager.handleSignal(QuestSignal.ofMaterial(SignalKind.ITEM_OBTAIN, event.getPlayer(),
+                event.getItemType(), event.getItemAmount(), null));
     }
     
     // Combat Events
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onEntityDeath(EntityDeathEvent event) {
-        if (event.getEntity().getKiller() instanceof Player) {
-            Player player = (Player) event.getEntity().getKiller();
-            processQuestEvent(player, event);
-        }
+    private void onEntityDeath(EntityDeathEvent event) {
+        LivingEntity victim = event.getEntity();
+        Player killer = victim.getKiller();
+        
+        // Self-kills don't count
+        if (killer == null || killer.equals(victim)) return;
+        questManager.handleSignal(QuestSignal.ofEntity(SignalKind.ENTITY_KILL, killer, victim.getType(), victim.getLocation()));
     }
     
     // Block Events
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onBlockBreak(BlockBreakEvent event) {
-        processQuestEvent(event.getPlayer(), event);
+    private void onBlockBreak(BlockBreakEvent event) {
+        questManager.handleSignal(QuestSignal.ofMaterial(SignalKind.BLOCK_BREAK, event.getPlayer(),
+                event.getBlock().getType(), 1, event.getBlock().getLocation()));
     }
     
     // Player Movement Events
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        processQuestEvent(event.getPlayer(), event);
-    }
-    
-    // Fishing Events
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerFish(PlayerFishEvent event) {
-        processQuestEvent(event.getPlayer(), event);
-    }
-    
-    // Villager Interaction Events
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerInteractEntity(PlayerInteractEntityEvent event) {
-        processQuestEvent(event.getPlayer(), event);
+    private void onPlayerMove(PlayerMoveEvent event) {
+        // Head rotation alone cannot progress any quest
+        if (!event.hasChangedPosition()) return;
+        
+        Player player = event.getPlayer();
+        Location to = event.getTo();
+        if (!questManager.getActiveProgress(player, SignalKind.MOVE).isEmpty()) {
+            questManager.handleSignal(QuestSignal.ofMove(player, event.getFrom(), to));
+        }
+        
+        if (event.hasChangedBlock()) {
+            checkRegions(player, to);
+        }
     }
     
-    // Trading Events
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player player)) return;
-        processQuestEvent(player, event);
+    /**
+     * Looks up the quest regions at the player's new block, only for players with region quests
+     */
+    private void checkRegions(Player player, Location to) {
+        if (questManager.getActiveProgress(player, SignalKind.REGION_ENTER).isEmpty()) return;
+        
+        for (QuestRegion region : questManager.getRegionIndex().getRegionsAt(to)) {
+            questManager.handleSignal(QuestSignal.ofRegion(player, region, to));
+        }
     }
     
-    // Flight Events (for flight quests)
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerToggleFlight(PlayerToggleFlightEvent event) {
-        processQuestEvent(event.getPlayer(), event);
+    // Statistic Events
+    private void onStatisticIncrement(PlayerStatisticIncrementEvent event) {
+        if (event.getStatistic() != Statistic.JUMP) return;
+        
+        questManager.handleSignal(QuestSignal.ofAmount(SignalKind.JUMP, event.getPlayer(),
+                event.getNewValue() - event.getPreviousValue()));
     }
     
-    // Food Level Change (for survival quests)
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onFoodLevelChange(org.bukkit.event.entity.FoodLevelChangeEvent event) {
-        if (event.getEntity() instanceof Player player) {
-            processQuestEvent(player, event);
-        }
+    // Fishing Events
+    private void onPlayerFish(PlayerFishEvent event) {
+        if (event.getState() != PlayerFishEvent.State.CAUGHT_FISH) return;
+        if (!(event.getCaught() instanceof Item caught)) return;
+        
+        ItemStack item = caught.getItemStack();
+        questManager.handleSignal(QuestSignal.ofMaterial(SignalKind.FISH_CATCH, event.getPlayer(), item.getType(), item.getAmount(), null));
     }
     
-    // Damage Events (for survival quests)
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onEntityDamage(org.bukkit.event.entity.EntityDamageEvent event) {
-        if (event.getEntity() instanceof Player player) {
-            processQuestEvent(player, event);
-        }
+    // Villager Interaction Events
+    private void onPlayerInteractEntity(PlayerInteractEntityEvent event) {
+        Entity entity = event.getRightClicked();
+        questManager.handleSignal(QuestSignal.ofEntity(SignalKind.ENTITY_INTERACT, event.getPlayer(), entity.getType(), entity.getLocation()));
     }
     
-    /**
-     * Process quest events for a player
-     */
-    private void processQuestEvent(Player player, org.bukkit.event.Event event) {
-        if (player == null) return;
+    // Trading Events
+    private void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getWhoClicked() instanceof Player player)) return;
+        if (!(event.getInventory() instanceof MerchantInventory merchantInventory)) return;
         
-        List<QuestProgress> activeQuests = plugin.getQuestManager().getPlayerProgress(player)
-                .stream()
-                .filter(progress -> !progress.isCompleted() && !progress.isExpired())
-                .toList();
+        // Only taking the result item completes a trade
+        if (event.getSlot() != 2 || event.getCurrentItem() == null) return;
         
-        for (QuestProgress progress : activeQuests) {
-            Quest quest = plugin.getQuestManager().getQuest(progress.getQuestId());
-            if (quest == null) continue;
-            
-            try {
-                AbstractQuestType questType = quest.createQuestTypeHandler();
-                int progressAmount = questType.checkProgress(player, event);
-                
-                if (progressAmount > 0) {
-                    plugin.getQuestManager().updateQuestProgress(player, progress.getQuestId(), progressAmount);
-                }
-            } catch (Exception e) {
-                plugin.getLogger().warning("Error processing quest event for quest " + quest.getId() + ": " + e.getMessage());
-            }
+        if (merchantInventory.getMerchant() instanceof Entity merchant) {
+            questManager.handleSignal(QuestSignal.ofEntity(SignalKind.MERCHANT_TRADE, player, merchant.getType(), merchant.getLocation()));
         }
     }
 }
@@ -0,0 +1,113 @@
+package net.fliuxx.questplus.quest;
+
+import net.fliuxx.questplus.QuestPlus;
+import net.fliuxx.questplus.utils.QuestUtils;
+import net.fliuxx.questplus.utils.TimingWheel;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fires quest expirations and time warnings when they are due.
+ * Deadlines are kept in a {@link TimingWheel} advanced every tick, so expiry is exact to the
+ * tick and scheduling or cancelling a quest's deadlines does not scan any progress list.
+ * Expired rows are deleted through the persistence queue.
+ */
+public class ExpirationScheduler {
+    
+    private static final long TICK_MILLIS = 50L;
+    
+    private final QuestPlus plugin;
+    private final QuestManager questManager;
+    private final TimingWheel<Deadline> wheel; // Main thread only
+    private final Map<QuestProgress, List<TimingWheel.Timeout<Deadline>>> scheduled; // Main thread only
+    
+    public ExpirationScheduler(QuestPlus plugin, QuestManager questManager) {
+        this.plugin = plugin;
+        this.questManager = questManager;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+        this.scheduled = new IdentityHashMap<>();
+        
+        startWheelTask();
+    }
+    
+    /**
+     * Schedules the expiry and time warnings of an active quest, replacing any previous schedule
+     * @param player The player owning the progress
+     * @param progress The quest progress, ignored if it has no time limit
+     */
+    public void schedule(Player player, QuestProgress progress) {
+        cancel(progress);
+        Long expiresAt = progress.getExpiresAt();
+        if (expiresAt == null || progress.isCompleted()) return;
+        
+        List<TimingWheel.Timeout<Deadline>> timeouts = new ArrayList<>();
+        timeouts.add(wheel.schedule(new Deadline(player, progress, 0), expiresAt));
+        
+        if (plugin.getConfigManager().isTimeWarningsEnabled()) {
+            long now = System.currentTimeMillis();
+            for (int threshold : plugin.getConfigManager().getTimeWarningThresholds()) {
+                long warnAt = expiresAt - threshold * 1000L;
+                if (threshold > 0 && warnAt > now) {
+                    timeouts.add(wheel.schedule(new Deadline(player, progress, threshold), warnAt));
+                }
+            }
+        }
+        
+        scheduled.put(progress, timeouts);
+    }
+    
+    /**
+     * Cancels the pending expiry and time warnings of a quest
+     * @param progress The quest progress
+     */
+    public void cancel(QuestProgress progress) {
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(plugin, () -> cancel(progress));
+            return;
+        }
+        
+        List<TimingWheel.Timeout<Deadline>> timeouts = scheduled.remove(progress);
+        if (timeouts != null) {
+            timeouts.forEach(wheel::cancel);
+        }
+    }
+    
+    private void startWheelTask() {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                wheel.advance(System.currentTimeMillis(), ExpirationScheduler.this::fire);
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    private void fire(Deadline deadline) {
+        QuestProgress progress = deadline.progress();
+        
+        if (deadline.warningSeconds() > 0) {
+            Quest quest = questManager.getQuest(progress.getQuestOrdinal());
+            if (quest != null && deadline.player().isOnline() && !progress.isCompleted()) {
+                Map<String, String> placeholders = new HashMap<>();
+                placeholders.put("quest", quest.getName());
+                placeholders.put("time", QuestUtils.formatTime(deadline.warningSeconds()));
+                plugin.getMessages().sendMessage(deadline.player(), "quest-time-warning", placeholders);
+            }
+            return;
+        }
+        
+        scheduled.remove(progress);
+        if (questManager.expireQuest(deadline.player(), progress)) {
+            plugin.getDatabaseManager().getPersistenceQueue().delete(progress);
+        }
+    }
+    
+    private record Deadline(Player player, QuestProgress progress, int warningSeconds) {
+    }
+}
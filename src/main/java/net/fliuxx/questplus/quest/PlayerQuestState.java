@@ -0,0 +1,304 @@
+package net.fliuxx.questplus.quest;
+
+import net.fliuxx.questplus.quest.signal.SignalKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Loaded quest progress of one player, in arrays indexed by quest ordinal.
+ * Active and completed quests are kept apart so lookups and counts never scan the
+ * player's progress, and list views are cached until the next change so rendering
+ * a GUI page or resolving a placeholder does not copy or filter anything.
+ * Completing a repeatable quest again replaces its previous completion, like the database row.
+ * <p>
+ * Aggregate counters are loaded with the session and updated on every transition, so counts
+ * shown in GUIs, commands and placeholders are field reads. Completion counters count every
+ * completion of repeatable quests, like the quests_completed column they are loaded from.
+ */
+public class PlayerQuestState {
+    
+    private final UUID playerUuid;
+    private QuestProgress[] active; // Indexed by quest ordinal
+    private QuestProgress[] completed;
+    private final Map<SignalKind, List<QuestProgress>> signalBuckets;
+    private volatile List<QuestProgress> activeView;
+    private volatile List<QuestProgress> completedView;
+    private volatile int activeCount;
+    private volatile int claimedCount;
+    private volatile int completedTotal;
+    private int[] completionsByQuest; // Indexed by quest ordinal
+    private volatile int[] completionsByType; // Indexed by quest type ordinal, counted by the quest manager
+    private volatile int revision; // Bumped on every change
+    
+    public PlayerQuestState(UUID playerUuid, Collection<QuestProgress> progress) {
+        this(playerUuid, progress, 0, Map.of());
+    }
+    
+    /**
+     * @param completedTotal The player's total quest completions
+     * @param completionsByQuest Completions per quest ordinal
+     */
+    public PlayerQuestState(UUID playerUuid, Collection<QuestProgress> progress, int completedTotal,
+                            Map<Integer, Integer> completionsByQuest) {
+        this.playerUuid = playerUuid;
+        this.active = new QuestProgress[0];
+        this.completed = new QuestProgress[0];
+        this.signalBuckets = new ConcurrentHashMap<>();
+        this.completedTotal = completedTotal;
+        this.completionsByQuest = new int[0];
+        this.completionsByType = new int[QuestType.values().length];
+        
+        for (QuestProgress questProgress : progress) {
+            file(questProgress);
+        }
+        for (Map.Entry<Integer, Integer> entry : completionsByQuest.entrySet()) {
+            if (entry.getKey() < 0) continue;
+            growCompletions(entry.getKey());
+            this.completionsByQuest[entry.getKey()] = entry.getValue();
+        }
+        changed();
+    }
+    
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+    
+    public synchronized QuestProgress getActive(int questOrdinal) {
+        return get(active, questOrdinal);
+    }
+    
+    public synchronized QuestProgress getCompleted(int questOrdinal) {
+        return get(completed, questOrdinal);
+    }
+    
+    /**
+     * Gets the progress of a quest, preferring the active attempt over a previous completion
+     * @param questOrdinal The quest ordinal
+     * @return The progress, or null if the player never took the quest
+     */
+    public synchronized QuestProgress getProgress(int questOrdinal) {
+        QuestProgress progress = get(active, questOrdinal);
+        return progress != null ? progress : get(completed, questOrdinal);
+    }
+    
+    public synchronized boolean hasActive(int questOrdinal) {
+        return get(active, questOrdinal) != null;
+    }
+    
+    public synchronized boolean contains(QuestProgress progress) {
+        int questOrdinal = progress.getQuestOrdinal();
+        return get(active, questOrdinal) == progress || get(completed, questOrdinal) == progress;
+    }
+    
+    public int getActiveCount() {
+        return activeCount;
+    }
+    
+    /**
+     * @return A number that changes whenever the player's quests, their progress or the counters change
+     */
+    public int getRevision() {
+        return revision;
+    }
+    
+    /**
+     * @return Completed quests held whose reward was claimed
+     */
+    public int getClaimedCount() {
+        return claimedCount;
+    }
+    
+    /**
+     * @return Total quest completions, counting every completion of repeatable quests
+     */
+    public int getCompletedTotal() {
+        return completedTotal;
+    }
+    
+    /**
+     * @return Completions of quests of the type, as of the last count by the quest manager
+     */
+    public int getCompletedCount(QuestType type) {
+        return completionsByType[type.ordinal()];
+    }
+    
+    /**
+     * @return Active quests in quest ordinal order, unmodifiable
+     */
+    public List<QuestProgress> getActiveQuests() {
+        List<QuestProgress> view = activeView;
+        if (view == null) {
+            synchronized (this) {
+                view = activeView = view(active);
+            }
+        }
+        return view;
+    }
+    
+    /**
+     * @return Completed quests in quest ordinal order, unmodifiable
+     */
+    public List<QuestProgress> getCompletedQuests() {
+        List<QuestProgress> view = completedView;
+        if (view == null) {
+            synchronized (this) {
+                view = completedView = view(completed);
+            }
+        }
+        return view;
+    }
+    
+    /**
+     * @return Active quests followed by completed ones, unmodifiable
+     */
+    public List<QuestProgress> getAllQuests() {
+        List<QuestProgress> activeQuests = getActiveQuests();
+        List<QuestProgress> completedQuests = getCompletedQuests();
+        if (completedQuests.isEmpty()) return activeQuests;
+        if (activeQuests.isEmpty()) return completedQuests;
+        
+        List<QuestProgress> all = new ArrayList<>(activeQuests.size() + completedQuests.size());
+        all.addAll(activeQuests);
+        all.addAll(completedQuests);
+        return List.copyOf(all);
+    }
+    
+    /**
+     * Adds progress, or moves it between the active and completed views after its state changed
+     * @param progress The progress to file under its current completion state
+     */
+    public synchronized void update(QuestProgress progress) {
+        removeEntry(progress);
+        file(progress);
+        changed();
+    }
+    
+    /**
+     * Removes progress from whichever view holds it
+     * @return Whether the progress was present
+     */
+    public synchronized boolean remove(QuestProgress progress) {
+        boolean removed = removeEntry(progress);
+        if (removed) {
+            changed();
+        }
+        return removed;
+    }
+    
+    /**
+     * Counts a completion of the quest, after its progress was updated to completed
+     * @param type The quest's type
+     */
+    synchronized void recordCompletion(int questOrdinal, QuestType type) {
+        growCompletions(questOrdinal);
+        completionsByQuest[questOrdinal]++;
+        completedTotal++;
+        
+        int[] byType = completionsByType.clone();
+        byType[type.ordinal()]++;
+        completionsByType = byType;
+        revision++;
+    }
+    
+    /**
+     * Records that the progress of an active quest advanced
+     */
+    synchronized void progressed() {
+        revision++;
+    }
+    
+    /**
+     * Recounts the completions per quest type, after loading or when quest types may have changed
+     * @param typeOf Gets the type of a quest ordinal, null for quests that no longer exist
+     */
+    synchronized void countCompletionsByType(IntFunction<QuestType> typeOf) {
+        int[] byType = new int[QuestType.values().length];
+        for (int questOrdinal = 0; questOrdinal < completionsByQuest.length; questOrdinal++) {
+            if (completionsByQuest[questOrdinal] == 0) continue;
+            QuestType type = typeOf.apply(questOrdinal);
+            if (type != null) {
+                byType[type.ordinal()] += completionsByQuest[questOrdinal];
+            }
+        }
+        completionsByType = byType;
+        revision++;
+    }
+    
+    /**
+     * Gets the active progress indexed by the signal kinds their handlers consume, maintained by the quest manager
+     */
+    Map<SignalKind, List<QuestProgress>> getSignalBuckets() {
+        return signalBuckets;
+    }
+    
+    private static QuestProgress get(QuestProgress[] progress, int questOrdinal) {
+        return questOrdinal >= 0 && questOrdinal < progress.length ? progress[questOrdinal] : null;
+    }
+    
+    private static boolean clear(QuestProgress[] progress, QuestProgress entry) {
+        int questOrdinal = entry.getQuestOrdinal();
+        if (get(progress, questOrdinal) != entry) return false;
+        progress[questOrdinal] = null;
+        return true;
+    }
+    
+    private static List<QuestProgress> view(QuestProgress[] progress) {
+        List<QuestProgress> view = new ArrayList<>();
+        for (QuestProgress entry : progress) {
+            if (entry != null) {
+                view.add(entry);
+            }
+        }
+        return List.copyOf(view);
+    }
+    
+    private void file(QuestProgress progress) {
+        int questOrdinal = progress.getQuestOrdinal();
+        // Grow only as far as needed, most players only ever hold a few quests
+        if (progress.isCompleted()) {
+            if (questOrdinal >= completed.length) {
+                completed = Arrays.copyOf(completed, questOrdinal + 1);
+            }
+            completed[questOrdinal] = progress;
+        } else {
+            if (questOrdinal >= active.length) {
+                active = Arrays.copyOf(active, questOrdinal + 1);
+            }
+            active[questOrdinal] = progress;
+        }
+    }
+    
+    private void growCompletions(int questOrdinal) {
+        if (questOrdinal >= completionsByQuest.length) {
+            completionsByQuest = Arrays.copyOf(completionsByQuest, questOrdinal + 1);
+        }
+    }
+    
+    private boolean removeEntry(QuestProgress progress) {
+        return clear(active, progress) || clear(completed, progress);
+    }
+    
+    private void changed() {
+        int count = 0;
+        for (QuestProgress entry : active) {
+            if (entry != null) count++;
+        }
+        activeCount = count;
+        
+        int claimed = 0;
+        for (QuestProgress entry : completed) {
+            if (entry != null && entry.isClaimed()) claimed++;
+        }
+        claimedCount = claimed;
+        activeView = null;
+        completedView = null;
+        revision++;
+    }
+}
@@ -0,0 +1,97 @@
+package net.fliuxx.questplus.quest;
+
+import net.fliuxx.questplus.database.PlayerData;
+
+import java.util.UUID;
+
+/**
+ * Lifecycle of one player's quest data across logins: loading, online, then retained for a
+ * while after quitting. Every login and quit starts a new generation, so a load that completes
+ * after the player quit or logged in again is recognized as stale and dropped.
+ */
+final class PlayerSession {
+    
+    enum Status {
+        LOADING, ONLINE, RETAINED
+    }
+    
+    private final UUID playerUuid;
+    private Status status;
+    private int generation;
+    private PlayerData loaded; // Loaded for the current generation, not installed yet
+    private PlayerQuestState retained; // Kept since the player quit
+    
+    PlayerSession(UUID playerUuid) {
+        this.playerUuid = playerUuid;
+        this.status = Status.LOADING;
+    }
+    
+    synchronized Status getStatus() {
+        return status;
+    }
+    
+    synchronized boolean isCurrent(int generation) {
+        return this.generation == generation;
+    }
+    
+    /**
+     * Starts loading the player's progress from the database, dropping any retained state
+     * @return The generation the load belongs to
+     */
+    synchronized int startLoading() {
+        status = Status.LOADING;
+        loaded = null;
+        retained = null;
+        return ++generation;
+    }
+    
+    /**
+     * Keeps the progress and counters of a load, unless the session moved on since it started
+     * @return Whether the progress was kept
+     */
+    synchronized boolean loaded(int generation, PlayerData data) {
+        if (this.generation != generation || status != Status.LOADING) return false;
+        loaded = data;
+        return true;
+    }
+    
+    /**
+     * Marks the player online with the state loaded or retained for them
+     * @return The state to install, or null if neither is available yet
+     */
+    synchronized PlayerQuestState activate() {
+        PlayerQuestState state;
+        if (status == Status.RETAINED) {
+            state = retained;
+        } else if (loaded != null) {
+            state = new PlayerQuestState(playerUuid, loaded.progress(), loaded.questsCompleted(), loaded.completionsByQuest());
+        } else {
+            return null;
+        }
+        
+        status = Status.ONLINE;
+        loaded = null;
+        retained = null;
+        generation++;
+        return state;
+    }
+    
+    /**
+     * Keeps the state of a player who quit
+     * @return The generation the state is retained for
+     */
+    synchronized int retain(PlayerQuestState state) {
+        status = Status.RETAINED;
+        retained = state;
+        return ++generation;
+    }
+    
+    /**
+     * Ends the session, a load still running for it is dropped
+     */
+    synchronized void end() {
+        loaded = null;
+        retained = null;
+        generation++;
+    }
+}
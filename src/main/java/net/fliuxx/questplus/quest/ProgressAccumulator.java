@@ -0,0 +1,90 @@
+package net.fliuxx.questplus.quest;
+
+import net.fliuxx.questplus.QuestPlus;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Buffers progress increments per player quest during a tick.
+ * Every increment made while handling a tick's events is summed and applied once
+ * by a task scheduled for the next tick, so farming 64 blocks in one tick completes
+ * or notifies once instead of 64 times.
+ */
+public class ProgressAccumulator {
+    
+    private final QuestPlus plugin;
+    private final QuestManager questManager;
+    private final Map<QuestProgress, Pending> pending; // Main thread only
+    private boolean flushScheduled;
+    
+    public ProgressAccumulator(QuestPlus plugin, QuestManager questManager) {
+        this.plugin = plugin;
+        this.questManager = questManager;
+        this.pending = new IdentityHashMap<>();
+    }
+    
+    /**
+     * Adds progress to be applied at the end of the tick
+     * @param player The player owning the progress
+     * @param progress The quest progress
+     * @param amount Amount to add, 0 still re-checks completion
+     */
+    public void add(Player player, QuestProgress progress, int amount) {
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(plugin, () -> add(player, progress, amount));
+            return;
+        }
+        
+        pending.computeIfAbsent(progress, k -> new Pending(player)).amount += amount;
+        
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Bukkit.getScheduler().runTask(plugin, this::flush);
+        }
+    }
+    
+    /**
+     * Applies all buffered progress now
+     */
+    public void flush() {
+        flushScheduled = false;
+        if (pending.isEmpty()) return;
+        
+        // Applying may complete quests and queue more progress, work on a snapshot
+        Map<QuestProgress, Pending> batch = new IdentityHashMap<>(pending);
+        pending.clear();
+        
+        for (Map.Entry<QuestProgress, Pending> entry : batch.entrySet()) {
+            questManager.applyProgress(entry.getValue().player, entry.getKey(), entry.getValue().amount);
+        }
+    }
+    
+    /**
+     * Applies the buffered progress of one player now, used before the player is unloaded
+     * @param player The player
+     */
+    public void flush(Player player) {
+        Iterator<Map.Entry<QuestProgress, Pending>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<QuestProgress, Pending> entry = iterator.next();
+            if (entry.getValue().player.equals(player)) {
+                iterator.remove();
+                questManager.applyProgress(player, entry.getKey(), entry.getValue().amount);
+            }
+        }
+    }
+    
+    private static final class Pending {
+        
+        private final Player player;
+        private int amount;
+        
+        private Pending(Player player) {
+            this.player = player;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.util.List;
 public class Quest {
     
     private final String id;
+    private final int ordinal; // Dense, persisted in the quest id dictionary
     private final String name;
     private final String description;
     private final List<String> lore;
@@ -24,12 +25,14 @@ public class Quest {
     private final boolean repeatable;
     private final int cooldown; // in seconds
     private final ConfigurationSection typeConfig;
+    private final AbstractQuestType handler; // Built once per definition, rebuilt on reload
     
-    public Quest(String id, String name, String description, List<String> lore, 
+    public Quest(String id, int ordinal, String name, String description, List<String> lore, 
                  QuestType type, int target, Material displayItem, QuestReward reward,
                  String permission, long timeLimit, boolean repeatable, int cooldown,
                  ConfigurationSection typeConfig) {
         this.id = id;
+        this.ordinal = ordinal;
         this.name = name;
         this.description = description;
         this.lore = lore;
@@ -42,9 +45,10 @@ public class Quest {
         this.repeatable = repeatable;
         this.cooldown = cooldown;
         this.typeConfig = typeConfig;
+        this.handler = createQuestTypeHandler();
     }
     
-    public static Quest fromConfig(String id, ConfigurationSection config) {
+    public static Quest fromConfig(String id, int ordinal, ConfigurationSection config) {
         String name = config.getString("name", id);
         String description = config.getString("description", "");
         List<String> lore = config.getStringList("lore");
@@ -66,7 +70,7 @@ public class Quest {
         
         ConfigurationSection typeConfig = config.getConfigurationSection("type-config");
         
-        return new Quest(id, name, description, lore, type, target, displayItem, 
+        return new Quest(id, ordinal, name, description, lore, type, target, displayItem, 
                         reward, permission, timeLimit, repeatable, cooldown, typeConfig);
     }
     
@@ -78,7 +82,7 @@ public class Quest {
         return true;
     }
     
-    public AbstractQuestType createQuestTypeHandler() {
+    private AbstractQuestType createQuestTypeHandler() {
         return switch (type) {
             case COLLECT -> new CollectQuest(this);
             case KILL_MOB -> new KillMobQuest(this);
@@ -98,6 +102,7 @@ public class Quest {
     
     // Getters
     public String getId() { return id; }
+    public int getOrdinal() { return ordinal; }
     public String getName() { return name; }
     public String getDescription() { return description; }
     public List<String> getLore() { return lore; }
@@ -110,6 +115,7 @@ public class Quest {
     public boolean isRepeatable() { return repeatable; }
     public int getCooldown() { return cooldown; }
     public ConfigurationSection getTypeConfig() { return typeConfig; }
+    public AbstractQuestType getHandler() { return handler; }
     
     public boolean hasTimeLimit() {
         return timeLimit > 0;
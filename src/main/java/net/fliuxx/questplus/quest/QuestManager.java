@@ -1,7 +1,14 @@
 package net.fliuxx.questplus.quest;
 
 import net.fliuxx.questplus.QuestPlus;
+import net.fliuxx.questplus.database.QuestIdDictionary;
+import net.fliuxx.questplus.database.PersistenceQueue;
+import net.fliuxx.questplus.database.PlayerData;
 import net.fliuxx.questplus.integration.LuckPermsIntegration;
+import net.fliuxx.questplus.quest.region.QuestRegion;
+import net.fliuxx.questplus.quest.region.RegionIndex;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
+import net.fliuxx.questplus.quest.signal.SignalKind;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
@@ -9,6 +16,10 @@ import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
 /**
@@ -16,19 +27,31 @@ import java.util.logging.Level;
  */
 public class QuestManager {
     
+    private static final long PREFETCH_TIMEOUT_SECONDS = 10L;
+    private static final long LOAD_RETRY_SECONDS = 5L;
+    
     private final QuestPlus plugin;
     private final Map<String, Quest> quests;
-    private final Map<UUID, List<QuestProgress>> playerProgress;
+    private volatile Quest[] questsByOrdinal;
+    private final Map<UUID, PlayerQuestState> playerStates;
+    private final Map<UUID, PlayerSession> sessions; // Loading, online and retained players
     private final Map<UUID, Map<String, Long>> questCooldowns;
+    private volatile RegionIndex regionIndex;
+    private final ProgressAccumulator progressAccumulator;
+    private final ExpirationScheduler expirationScheduler;
     
     public QuestManager(QuestPlus plugin) {
         this.plugin = plugin;
         this.quests = new ConcurrentHashMap<>();
-        this.playerProgress = new ConcurrentHashMap<>();
+        this.questsByOrdinal = new Quest[0];
+        this.playerStates = new ConcurrentHashMap<>();
+        this.sessions = new ConcurrentHashMap<>();
         this.questCooldowns = new ConcurrentHashMap<>();
+        this.regionIndex = new RegionIndex(Collections.emptyList());
+        this.progressAccumulator = new ProgressAccumulator(plugin, this);
+        this.expirationScheduler = new ExpirationScheduler(plugin, this);
         
         startAutoSaveTask();
-        startExpirationTask();
     }
     
     public void loadQuests() {
@@ -40,43 +63,212 @@ public class QuestManager {
             return;
         }
         
+        QuestIdDictionary questIds = getQuestIds();
         for (String questId : questsSection.getKeys(false)) {
             try {
                 ConfigurationSection questConfig = questsSection.getConfigurationSection(questId);
-                Quest quest = Quest.fromConfig(questId, questConfig);
-                quests.put(questId, quest);
+                int ordinal = questIds.intern(questId);
+                Quest quest = Quest.fromConfig(questIds.idOf(ordinal), ordinal, questConfig);
+                quests.put(quest.getId(), quest);
             } catch (Exception e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to load quest: " + questId, e);
             }
         }
         
+        Quest[] byOrdinal = new Quest[questIds.size()];
+        for (Quest quest : quests.values()) {
+            byOrdinal[quest.getOrdinal()] = quest;
+        }
+        questsByOrdinal = byOrdinal;
+        
         plugin.getLogger().info("Loaded " + quests.size() + " quests");
+        
+        // Index location objectives by chunk
+        List<QuestRegion> regions = new ArrayList<>();
+        for (Quest quest : quests.values()) {
+            QuestRegion region = quest.getHandler().getRegion();
+            if (region != null) {
+                regions.add(region);
+            }
+        }
+        regionIndex = new RegionIndex(regions);
+        
+        // Quest types may have changed, rebuild every player's signal index and type counters
+        for (PlayerQuestState state : playerStates.values()) {
+            rebuildSignalIndex(state);
+            countCompletionsByType(state);
+        }
+    }
+    
+    /**
+     * Loads a player's progress before they join, blocks the calling login thread
+     * @param playerUuid The player's UUID
+     * @param username The player's name
+     */
+    public void prefetchPlayerProgress(UUID playerUuid, String username) {
+        PlayerSession session = sessions.computeIfAbsent(playerUuid, PlayerSession::new);
+        // A quick rejoin reuses the state retained since the player quit
+        if (session.getStatus() == PlayerSession.Status.RETAINED) return;
+        
+        int generation = session.startLoading();
+        // Changes still queued from the last session must be written before they are read back
+        if (!plugin.getDatabaseManager().getPersistenceQueue().awaitPlayer(playerUuid)) {
+            // The join loads the progress once the changes are written
+            plugin.getLogger().warning("Quest changes of " + username + " are not written yet, skipping their prefetch");
+            return;
+        }
+        try {
+            PlayerData data = plugin.getDatabaseManager().getProgressLoader()
+                    .load(playerUuid, username).get(PREFETCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            session.loaded(generation, data);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // The join loads the progress again
+            plugin.getLogger().log(Level.WARNING, "Failed to prefetch quest progress for " + username, e);
+        }
+    }
+    
+    /**
+     * Drops progress prefetched for a login that was refused, progress retained since an earlier quit is kept
+     * @param playerUuid The player's UUID
+     */
+    public void discardPrefetchedProgress(UUID playerUuid) {
+        sessions.computeIfPresent(playerUuid, (uuid, session) -> {
+            if (session.getStatus() != PlayerSession.Status.LOADING) return session;
+            session.end();
+            return null;
+        });
+    }
+    
+    /**
+     * Drops the progress retained for a player who quit, after their rows were changed in the database
+     * @param playerUuid The player's UUID
+     */
+    public void discardRetainedProgress(UUID playerUuid) {
+        sessions.computeIfPresent(playerUuid, (uuid, session) -> {
+            if (session.getStatus() != PlayerSession.Status.RETAINED) return session;
+            session.end();
+            questCooldowns.remove(uuid);
+            return null;
+        });
     }
     
+    /**
+     * Installs a joining player's progress, retained since they quit, prefetched during login or
+     * otherwise loaded asynchronously
+     * @param player The joining player
+     */
     public void loadPlayerProgress(Player player) {
         UUID uuid = player.getUniqueId();
-        List<QuestProgress> progress = plugin.getDatabaseManager().getQuestDatabase().getPlayerProgress(uuid);
-        playerProgress.put(uuid, progress);
+        PlayerSession session = sessions.computeIfAbsent(uuid, PlayerSession::new);
+        PlayerQuestState state = session.activate();
+        if (state != null) {
+            installPlayerProgress(player, state);
+            return;
+        }
         
-        // Update player in database
-        plugin.getDatabaseManager().getQuestDatabase().createOrUpdatePlayer(uuid, player.getName());
+        loadPlayerProgress(player, session, session.startLoading(), 0L);
     }
     
+    /**
+     * Loads a joined player's progress asynchronously, retrying while their queued changes cannot be written
+     * @param delay Ticks to wait before loading
+     */
+    private void loadPlayerProgress(Player player, PlayerSession session, int generation, long delay) {
+        UUID uuid = player.getUniqueId();
+        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> {
+            if (!session.isCurrent(generation)) return;
+            
+            // Rows read before the queued changes are written would overwrite them on the next save
+            if (!plugin.getDatabaseManager().getPersistenceQueue().awaitPlayer(uuid)) {
+                plugin.getLogger().warning("Quest changes of " + player.getName() + " are not written yet, retrying their load in "
+                        + LOAD_RETRY_SECONDS + " seconds");
+                loadPlayerProgress(player, session, generation, LOAD_RETRY_SECONDS * 20L);
+                return;
+            }
+            
+            plugin.getDatabaseManager().getProgressLoader().load(uuid, player.getName())
+                    .thenAccept(loaded -> Bukkit.getScheduler().runTask(plugin, () -> {
+                        // Dropped if the player quit or joined again meanwhile
+                        if (session.loaded(generation, loaded) && sessions.get(uuid) == session) {
+                            installPlayerProgress(player, session.activate());
+                        }
+                    }))
+                    .exceptionally(e -> {
+                        plugin.getLogger().log(Level.SEVERE, "Failed to load quest progress for " + player.getName(), e);
+                        return null;
+                    });
+        }, delay);
+    }
+    
+    private void installPlayerProgress(Player player, PlayerQuestState state) {
+        UUID uuid = player.getUniqueId();
+        PlayerQuestState previous = playerStates.put(uuid, state);
+        if (previous != null && previous != state) {
+            releaseSignalIndex(previous);
+        }
+        rebuildSignalIndex(state);
+        countCompletionsByType(state);
+        
+        for (QuestProgress questProgress : state.getActiveQuests()) {
+            Quest quest = getQuest(questProgress.getQuestOrdinal());
+            if (quest != null) {
+                expirationScheduler.schedule(player, questProgress);
+                quest.getHandler().onProgressLoaded(player, questProgress);
+            }
+        }
+    }
+    
+    /**
+     * Queues the player's changed progress to be written and takes their state offline, keeping it
+     * in memory for the configured cache timeout. Called on the main thread when the player quits.
+     * @param player The quitting player
+     */
     public void unloadPlayerProgress(Player player) {
         UUID uuid = player.getUniqueId();
         
-        // Save progress before unloading
-        List<QuestProgress> progress = playerProgress.get(uuid);
-        if (progress != null) {
-            for (QuestProgress questProgress : progress) {
-                plugin.getDatabaseManager().getQuestDatabase().saveQuestProgress(questProgress);
+        PlayerQuestState state = playerStates.remove(uuid);
+        if (state != null) {
+            PersistenceQueue queue = plugin.getDatabaseManager().getPersistenceQueue();
+            for (QuestProgress questProgress : state.getAllQuests()) {
+                expirationScheduler.cancel(questProgress);
+                if (questProgress.isDirty()) {
+                    queue.save(questProgress);
+                }
             }
+            releaseSignalIndex(state);
+        }
+        
+        // Only a state installed from a load or an earlier retention is kept, a player who quit
+        // before their load landed has nothing to retain
+        PlayerSession session = sessions.get(uuid);
+        if (session != null && state != null && session.getStatus() == PlayerSession.Status.ONLINE
+                && plugin.getConfigManager().isCachePlayerData()
+                && plugin.getConfigManager().getCacheTimeout() > 0) {
+            int generation = session.retain(state);
+            long timeoutTicks = plugin.getConfigManager().getCacheTimeout() * 60L * 20L;
+            Bukkit.getScheduler().runTaskLater(plugin, () -> evictSession(uuid, generation), timeoutTicks);
+            return;
         }
         
-        playerProgress.remove(uuid);
+        if (session != null) {
+            session.end();
+            sessions.remove(uuid, session);
+        }
         questCooldowns.remove(uuid);
     }
     
+    private void evictSession(UUID playerUuid, int generation) {
+        sessions.computeIfPresent(playerUuid, (uuid, session) -> {
+            // The player joined or quit again since this eviction was scheduled
+            if (!session.isCurrent(generation)) return session;
+            session.end();
+            questCooldowns.remove(uuid);
+            return null;
+        });
+    }
+    
     public boolean acceptQuest(Player player, String questId) {
         Quest quest = quests.get(questId);
         if (quest == null) {
@@ -85,6 +277,13 @@ public class QuestManager {
         
         UUID uuid = player.getUniqueId();
         
+        // Until the player's progress is installed, an accepted quest could overwrite a stored one
+        PlayerQuestState state = playerStates.get(uuid);
+        if (state == null) {
+            plugin.getMessages().sendMessage(player, "quest-data-loading");
+            return false;
+        }
+        
         // Check if player can accept the quest
         if (!quest.canPlayerAccept(player)) {
             plugin.getMessages().sendMessage(player, "no-permission");
@@ -110,17 +309,19 @@ public class QuestManager {
         }
         
         // Create quest progress
-        QuestProgress progress = new QuestProgress(uuid, questId, quest.getTarget());
+        QuestProgress progress = new QuestProgress(uuid, quest.getId(), quest.getOrdinal(), quest.getTarget());
         if (quest.hasTimeLimit()) {
             progress.setExpiresAt(System.currentTimeMillis() + quest.getTimeLimit());
         }
         
         // Add to player progress
-        List<QuestProgress> playerQuests = playerProgress.computeIfAbsent(uuid, k -> new ArrayList<>());
-        playerQuests.add(progress);
+        state.update(progress);
+        indexProgress(state, progress);
+        expirationScheduler.schedule(player, progress);
+        quest.getHandler().onQuestAccepted(player, progress);
         
         // Save to database
-        plugin.getDatabaseManager().getQuestDatabase().saveQuestProgress(progress);
+        plugin.getDatabaseManager().getPersistenceQueue().save(progress);
         
         // Send confirmation message
         Map<String, String> placeholders = new HashMap<>();
@@ -131,11 +332,8 @@ public class QuestManager {
     }
     
     public boolean hasActiveQuest(Player player, String questId) {
-        List<QuestProgress> progress = playerProgress.get(player.getUniqueId());
-        if (progress == null) return false;
-        
-        return progress.stream()
-                .anyMatch(p -> p.getQuestId().equals(questId) && !p.isCompleted());
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        return state != null && state.hasActive(getQuestIds().ordinalOf(questId));
     }
     
     public boolean canAcceptMoreQuests(Player player) {
@@ -172,46 +370,85 @@ public class QuestManager {
         return System.currentTimeMillis() < cooldownEnd;
     }
     
+    /**
+     * Adds progress to an active quest, increments made during a tick are applied together at its end
+     * @param player The player
+     * @param questId The quest ID
+     * @param amount Amount to add, 0 only re-checks completion
+     */
     public void updateQuestProgress(Player player, String questId, int amount) {
-        List<QuestProgress> progress = playerProgress.get(player.getUniqueId());
-        if (progress == null) return;
-        
-        QuestProgress questProgress = progress.stream()
-                .filter(p -> p.getQuestId().equals(questId) && !p.isCompleted())
-                .findFirst()
-                .orElse(null);
-        
+        QuestProgress questProgress = getActiveQuest(player, questId);
         if (questProgress == null) return;
         
+        progressAccumulator.add(player, questProgress, amount);
+    }
+    
+    /**
+     * Applies the progress buffered for a player immediately, before their progress is saved or unloaded
+     * @param player The player
+     */
+    public void flushPendingProgress(Player player) {
+        progressAccumulator.flush(player);
+    }
+    
+    /**
+     * Applies all buffered progress immediately
+     */
+    public void flushPendingProgress() {
+        progressAccumulator.flush();
+    }
+    
+    void applyProgress(Player player, QuestProgress questProgress, int amount) {
+        // The quest may have been completed, abandoned or unloaded since the increment was buffered
+        if (questProgress.isCompleted()) return;
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        if (state == null || !state.contains(questProgress)) return;
+        
+        int previous = questProgress.getProgress();
         questProgress.addProgress(amount);
+        state.progressed();
         
         // Check if completed
         if (questProgress.getProgress() >= questProgress.getTarget()) {
             completeQuest(player, questProgress);
-        } else {
+        } else if (shouldNotifyProgress(previous, questProgress.getProgress())) {
             // Send progress message
-            Quest quest = quests.get(questId);
+            Quest quest = getQuest(questProgress.getQuestOrdinal());
             if (quest != null) {
                 Map<String, String> placeholders = new HashMap<>();
                 placeholders.put("quest", quest.getName());
                 placeholders.put("current", String.valueOf(questProgress.getProgress()));
                 placeholders.put("target", String.valueOf(questProgress.getTarget()));
+                placeholders.put("percentage", String.format("%.1f", questProgress.getProgressPercentage()));
                 plugin.getMessages().sendMessage(player, "quest-progress", placeholders);
             }
         }
     }
     
+    private boolean shouldNotifyProgress(int previous, int current) {
+        if (!plugin.getConfigManager().isProgressNotificationsEnabled()) {
+            return false;
+        }
+        
+        // Notify only when a multiple of the interval is crossed
+        int interval = plugin.getConfigManager().getProgressNotificationInterval();
+        return current / interval > previous / interval;
+    }
+    
     private void completeQuest(Player player, QuestProgress progress) {
-        Quest quest = quests.get(progress.getQuestId());
+        Quest quest = getQuest(progress.getQuestOrdinal());
         if (quest == null) return;
         
         progress.setCompleted(true);
         progress.setCompletedAt(System.currentTimeMillis());
-        
-        // Save completion time for statistics
-        long completionTime = progress.getCompletedAt() - progress.getStartedAt();
-        plugin.getDatabaseManager().getQuestDatabase().saveQuestStatistics(
-                player.getUniqueId(), progress.getQuestId(), completionTime);
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        if (state != null) {
+            state.update(progress);
+            state.recordCompletion(progress.getQuestOrdinal(), quest.getType());
+            unindexProgress(state, progress);
+        }
+        expirationScheduler.cancel(progress);
+        quest.getHandler().onQuestCompleted(player, progress);
         
         // Set cooldown if applicable
         if (quest.getCooldown() > 0) {
@@ -224,20 +461,16 @@ public class QuestManager {
         placeholders.put("quest", quest.getName());
         plugin.getMessages().sendMessage(player, "quest-completed", placeholders);
         
-        // Save to database
-        plugin.getDatabaseManager().getQuestDatabase().saveQuestProgress(progress);
+        // Save progress, statistics and player counters together
+        plugin.getDatabaseManager().getPersistenceQueue().complete(progress);
     }
     
     public boolean claimReward(Player player, String questId) {
-        List<QuestProgress> progress = playerProgress.get(player.getUniqueId());
-        if (progress == null) return false;
-        
-        QuestProgress questProgress = progress.stream()
-                .filter(p -> p.getQuestId().equals(questId) && p.isCompleted() && !p.isClaimed())
-                .findFirst()
-                .orElse(null);
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        if (state == null) return false;
         
-        if (questProgress == null) return false;
+        QuestProgress questProgress = state.getCompleted(getQuestIds().ordinalOf(questId));
+        if (questProgress == null || questProgress.isClaimed()) return false;
         
         Quest quest = quests.get(questId);
         if (quest == null) return false;
@@ -248,10 +481,11 @@ public class QuestManager {
         
         // Remove from active quests if not repeatable
         if (!quest.isRepeatable()) {
-            progress.remove(questProgress);
-            plugin.getDatabaseManager().getQuestDatabase().deleteQuestProgress(player.getUniqueId(), questId);
+            state.remove(questProgress);
+            plugin.getDatabaseManager().getPersistenceQueue().delete(questProgress);
         } else {
-            plugin.getDatabaseManager().getQuestDatabase().saveQuestProgress(questProgress);
+            state.update(questProgress);
+            plugin.getDatabaseManager().getPersistenceQueue().save(questProgress);
         }
         
         // Send reward claimed message
@@ -262,27 +496,221 @@ public class QuestManager {
         return true;
     }
     
-    public int getActiveQuestCount(Player player) {
-        List<QuestProgress> progress = playerProgress.get(player.getUniqueId());
-        if (progress == null) return 0;
+    /**
+     * Removes a quest from a player's progress, both in memory and in the database
+     * @param player The player owning the progress
+     * @param progress The progress to remove
+     */
+    public void removeQuestProgress(Player player, QuestProgress progress) {
+        UUID uuid = player.getUniqueId();
+        PlayerQuestState state = playerStates.get(uuid);
+        if (state == null) return;
+        
+        state.remove(progress);
+        unindexProgress(state, progress);
+        expirationScheduler.cancel(progress);
+        plugin.getDatabaseManager().getPersistenceQueue().delete(progress);
+    }
+    
+    /**
+     * Re-evaluates whether a progress entry should receive events, after its
+     * completion state was changed outside of the normal quest flow
+     * @param player The player owning the progress
+     * @param progress The progress that changed
+     */
+    public void refreshQuestProgress(Player player, QuestProgress progress) {
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        if (state == null) return;
+        
+        state.update(progress);
+        unindexProgress(state, progress);
+        expirationScheduler.cancel(progress);
+        if (!progress.isCompleted()) {
+            indexProgress(state, progress);
+            expirationScheduler.schedule(player, progress);
+        }
+    }
+    
+    /**
+     * Expires an active quest, called by the expiration scheduler when its time limit is reached
+     * @param player The player owning the progress
+     * @param progress The expired progress
+     * @return Whether the quest was still active and has been removed, its row still has to be deleted
+     */
+    boolean expireQuest(Player player, QuestProgress progress) {
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        if (state == null || progress.isCompleted() || !state.remove(progress)) {
+            return false;
+        }
+        
+        unindexProgress(state, progress);
+        
+        Quest quest = getQuest(progress.getQuestOrdinal());
+        if (quest != null) {
+            quest.getHandler().onQuestExpired(player, progress);
+            
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("quest", quest.getName());
+            plugin.getMessages().sendMessage(player, "quest-expired", placeholders);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Gets the player's active quests that can be progressed by the given signal kind
+     * @param player The player
+     * @param kind The kind of signal being dispatched
+     * @return Active progress entries interested in the signal, never null
+     */
+    public List<QuestProgress> getActiveProgress(Player player, SignalKind kind) {
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        if (state == null) return Collections.emptyList();
+        
+        return state.getSignalBuckets().getOrDefault(kind, Collections.emptyList());
+    }
+    
+    /**
+     * Passes a signal to every active quest of its player that consumes its kind
+     * @param signal The normalized signal
+     */
+    public void handleSignal(QuestSignal signal) {
+        Player player = signal.getPlayer();
+        
+        for (QuestProgress progress : getActiveProgress(player, signal.getKind())) {
+            if (progress.isCompleted() || progress.isExpired()) continue;
+            
+            Quest quest = getQuest(progress.getQuestOrdinal());
+            if (quest == null) continue;
+            
+            try {
+                int progressAmount = quest.getHandler().checkProgress(player, progress, signal);
+                
+                if (progressAmount > 0) {
+                    updateQuestProgress(player, progress.getQuestId(), progressAmount);
+                }
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error processing quest signal for quest " + quest.getId() + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    private void rebuildSignalIndex(PlayerQuestState state) {
+        releaseSignalIndex(state);
         
-        return (int) progress.stream()
-                .filter(p -> !p.isCompleted())
-                .count();
+        for (QuestProgress progress : state.getActiveQuests()) {
+            indexProgress(state, progress);
+        }
+    }
+    
+    private void countCompletionsByType(PlayerQuestState state) {
+        state.countCompletionsByType(questOrdinal -> {
+            Quest quest = getQuest(questOrdinal);
+            return quest != null ? quest.getType() : null;
+        });
+    }
+    
+    private void releaseSignalIndex(PlayerQuestState state) {
+        Map<SignalKind, List<QuestProgress>> buckets = state.getSignalBuckets();
+        for (Map.Entry<SignalKind, List<QuestProgress>> entry : buckets.entrySet()) {
+            for (int i = 0; i < entry.getValue().size(); i++) {
+                plugin.getEventRegistry().release(entry.getKey());
+            }
+        }
+        buckets.clear();
+    }
+    
+    private void indexProgress(PlayerQuestState state, QuestProgress progress) {
+        Quest quest = getQuest(progress.getQuestOrdinal());
+        if (quest == null) return;
+        
+        Map<SignalKind, List<QuestProgress>> buckets = state.getSignalBuckets();
+        for (SignalKind kind : quest.getHandler().getSignalKinds()) {
+            List<QuestProgress> bucket = buckets.computeIfAbsent(kind, k -> new CopyOnWriteArrayList<>());
+            if (!bucket.contains(progress)) {
+                bucket.add(progress);
+                plugin.getEventRegistry().acquire(kind);
+            }
+        }
     }
     
+    private void unindexProgress(PlayerQuestState state, QuestProgress progress) {
+        for (Map.Entry<SignalKind, List<QuestProgress>> entry : state.getSignalBuckets().entrySet()) {
+            if (entry.getValue().remove(progress)) {
+                plugin.getEventRegistry().release(entry.getKey());
+            }
+        }
+    }
+    
+    public int getActiveQuestCount(Player player) {
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        return state != null ? state.getActiveCount() : 0;
+    }
+    
+    /**
+     * @return The player's total quest completions, counting every completion of repeatable quests
+     */
     public int getCompletedQuestCount(Player player) {
-        return plugin.getDatabaseManager().getQuestDatabase().getCompletedQuestCount(player.getUniqueId());
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        return state != null ? state.getCompletedTotal() : 0;
+    }
+    
+    /**
+     * @return The player's completions of quests of the type
+     */
+    public int getCompletedQuestCount(Player player, QuestType type) {
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        return state != null ? state.getCompletedCount(type) : 0;
+    }
+    
+    /**
+     * @return The player's completed quests whose reward was claimed and that are still held
+     */
+    public int getClaimedQuestCount(Player player) {
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        return state != null ? state.getClaimedCount() : 0;
+    }
+    
+    /**
+     * Gets the loaded quest state of a player
+     * @param player The player
+     * @return The player's state, empty if their progress is not loaded
+     */
+    public PlayerQuestState getPlayerState(Player player) {
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        return state != null ? state : new PlayerQuestState(player.getUniqueId(), List.of());
     }
     
     public List<QuestProgress> getPlayerProgress(Player player) {
-        return playerProgress.getOrDefault(player.getUniqueId(), new ArrayList<>());
+        return getPlayerState(player).getAllQuests();
+    }
+    
+    /**
+     * Gets the player's active progress for a quest
+     * @return The progress, or null if the quest is not active
+     */
+    public QuestProgress getActiveQuest(Player player, String questId) {
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        return state != null ? state.getActive(getQuestIds().ordinalOf(questId)) : null;
+    }
+    
+    /**
+     * Gets the player's progress for a quest, active or completed
+     * @return The progress, or null if the player has none for this quest
+     */
+    public QuestProgress getQuestProgress(Player player, String questId) {
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        return state != null ? state.getProgress(getQuestIds().ordinalOf(questId)) : null;
     }
     
     public List<Quest> getAvailableQuests(Player player) {
+        // Nothing is offered before the player's progress is installed
+        PlayerQuestState state = playerStates.get(player.getUniqueId());
+        if (state == null) return List.of();
+        
         return quests.values().stream()
                 .filter(quest -> quest.canPlayerAccept(player))
-                .filter(quest -> !hasActiveQuest(player, quest.getId()))
+                .filter(quest -> !state.hasActive(quest.getOrdinal()))
                 .filter(quest -> !isOnCooldown(player, quest.getId()))
                 .toList();
     }
@@ -291,14 +719,36 @@ public class QuestManager {
         return quests.get(questId);
     }
     
+    /**
+     * @return The loaded quest with the given ordinal, or null if it is not configured
+     */
+    public Quest getQuest(int ordinal) {
+        Quest[] byOrdinal = questsByOrdinal;
+        return ordinal >= 0 && ordinal < byOrdinal.length ? byOrdinal[ordinal] : null;
+    }
+    
+    public QuestIdDictionary getQuestIds() {
+        return plugin.getDatabaseManager().getQuestDatabase().getQuestIds();
+    }
+    
     public Collection<Quest> getAllQuests() {
         return quests.values();
     }
     
+    public RegionIndex getRegionIndex() {
+        return regionIndex;
+    }
+    
+    /**
+     * Queues the progress that changed since it was last saved to be written
+     */
     public void saveAllProgress() {
-        for (List<QuestProgress> progressList : playerProgress.values()) {
-            for (QuestProgress progress : progressList) {
-                plugin.getDatabaseManager().getQuestDatabase().saveQuestProgress(progress);
+        PersistenceQueue queue = plugin.getDatabaseManager().getPersistenceQueue();
+        for (PlayerQuestState state : playerStates.values()) {
+            for (QuestProgress progress : state.getAllQuests()) {
+                if (progress.isDirty()) {
+                    queue.save(progress);
+                }
             }
         }
     }
@@ -317,37 +767,4 @@ public class QuestManager {
             }
         }.runTaskTimerAsynchronously(plugin, interval, interval);
     }
-    
-    private void startExpirationTask() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                long currentTime = System.currentTimeMillis();
-                
-                for (Map.Entry<UUID, List<QuestProgress>> entry : playerProgress.entrySet()) {
-                    Player player = Bukkit.getPlayer(entry.getKey());
-                    if (player == null) continue;
-                    
-                    List<QuestProgress> progressList = entry.getValue();
-                    List<QuestProgress> toRemove = new ArrayList<>();
-                    
-                    for (QuestProgress progress : progressList) {
-                        if (progress.getExpiresAt() != null && progress.getExpiresAt() <= currentTime) {
-                            Quest quest = quests.get(progress.getQuestId());
-                            if (quest != null) {
-                                Map<String, String> placeholders = new HashMap<>();
-                                placeholders.put("quest", quest.getName());
-                                plugin.getMessages().sendMessage(player, "quest-expired", placeholders);
-                            }
-                            
-                            toRemove.add(progress);
-                            plugin.getDatabaseManager().getQuestDatabase().deleteQuestProgress(entry.getKey(), progress.getQuestId());
-                        }
-                    }
-                    
-                    progressList.removeAll(toRemove);
-                }
-            }
-        }.runTaskTimer(plugin, 20 * 60, 20 * 60); // Check every minute
-    }
 }
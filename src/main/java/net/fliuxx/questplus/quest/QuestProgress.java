@@ -1,12 +1,9 @@
 package net.fliuxx.questplus.quest;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import net.fliuxx.questplus.quest.data.DataSlot;
+import net.fliuxx.questplus.quest.data.ProgressData;
 
-import java.lang.reflect.Type;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -14,10 +11,9 @@ import java.util.UUID;
  */
 public class QuestProgress {
     
-    private static final Gson GSON = new GsonBuilder().create();
-    
     private final UUID playerUuid;
     private final String questId;
+    private final int questOrdinal;
     private final int target;
     private int progress;
     private boolean completed;
@@ -25,25 +21,33 @@ public class QuestProgress {
     private long startedAt;
     private Long completedAt;
     private Long expiresAt;
-    private Map<String, Object> data;
+    private final ProgressData data;
+    private volatile int version; // Bumped on every change, changes are made on the main thread
+    private volatile int savedVersion; // Version last written to the database
     
-    public QuestProgress(UUID playerUuid, String questId, int target) {
+    public QuestProgress(UUID playerUuid, String questId, int questOrdinal, int target) {
         this.playerUuid = playerUuid;
         this.questId = questId;
+        this.questOrdinal = questOrdinal;
         this.target = target;
         this.progress = 0;
         this.completed = false;
         this.claimed = false;
         this.startedAt = System.currentTimeMillis();
-        this.data = new HashMap<>();
+        this.data = new ProgressData();
+        this.savedVersion = -1; // Never saved
     }
     
     public void addProgress(int amount) {
-        this.progress = Math.min(this.progress + amount, this.target);
+        setProgress(this.progress + amount);
     }
     
     public void setProgress(int progress) {
-        this.progress = Math.min(progress, this.target);
+        int capped = Math.min(progress, this.target);
+        if (capped != this.progress) {
+            this.progress = capped;
+            version++;
+        }
     }
     
     public boolean isExpired() {
@@ -59,39 +63,58 @@ public class QuestProgress {
         return target > 0 ? (double) progress / target * 100.0 : 0.0;
     }
     
-    // Data management methods
-    public void setData(String key, Object value) {
-        data.put(key, value);
+    // Data management methods, slots are declared by the quest type
+    public boolean hasData(DataSlot slot) { return data.has(slot); }
+    public int getInt(DataSlot slot) { return data.getInt(slot); }
+    public long getLong(DataSlot slot) { return data.getLong(slot); }
+    public double getDouble(DataSlot slot) { return data.getDouble(slot); }
+    public boolean getBoolean(DataSlot slot) { return data.getBoolean(slot); }
+    public void setInt(DataSlot slot, int value) { data.setInt(slot, value); }
+    public void setLong(DataSlot slot, long value) { data.setLong(slot, value); }
+    public void setDouble(DataSlot slot, double value) { data.setDouble(slot, value); }
+    public void setBoolean(DataSlot slot, boolean value) { data.setBoolean(slot, value); }
+    public void removeData(DataSlot slot) { data.remove(slot); }
+    
+    /**
+     * @return The encoded data for the data column, null if there is none
+     */
+    public String encodeData() {
+        return data.encode();
     }
     
-    public Object getData(String key) {
-        return data.get(key);
+    /**
+     * @return A number that changes whenever the progress or its data changes
+     */
+    public int getVersion() {
+        return version + data.getVersion();
     }
     
-    public <T> T getData(String key, Class<T> type) {
-        Object value = data.get(key);
-        if (value != null && type.isAssignableFrom(value.getClass())) {
-            return type.cast(value);
-        }
-        return null;
+    /**
+     * @return Whether the progress changed since it was last saved or loaded
+     */
+    public boolean isDirty() {
+        return getVersion() != savedVersion;
     }
     
-    public String getDataAsJson() {
-        return data.isEmpty() ? null : GSON.toJson(data);
+    /**
+     * Marks the progress as persisted up to a version, changes made after it was read stay dirty
+     * @param version The version read before the progress was written
+     */
+    public void markSaved(int version) {
+        this.savedVersion = version;
     }
     
-    public void setDataFromJson(String json) {
-        if (json != null && !json.isEmpty()) {
-            Type type = new TypeToken<Map<String, Object>>(){}.getType();
-            this.data = GSON.fromJson(json, type);
-        } else {
-            this.data = new HashMap<>();
-        }
+    /**
+     * Loads data from the data column, binary or legacy JSON
+     */
+    public void loadData(String stored) {
+        data.load(stored);
     }
     
     // Getters and setters
     public UUID getPlayerUuid() { return playerUuid; }
     public String getQuestId() { return questId; }
+    public int getQuestOrdinal() { return questOrdinal; }
     public int getTarget() { return target; }
     public int getProgress() { return progress; }
     public boolean isCompleted() { return completed; }
@@ -99,11 +122,39 @@ public class QuestProgress {
     public long getStartedAt() { return startedAt; }
     public Long getCompletedAt() { return completedAt; }
     public Long getExpiresAt() { return expiresAt; }
-    public Map<String, Object> getAllData() { return new HashMap<>(data); }
     
-    public void setCompleted(boolean completed) { this.completed = completed; }
-    public void setClaimed(boolean claimed) { this.claimed = claimed; }
-    public void setStartedAt(long startedAt) { this.startedAt = startedAt; }
-    public void setCompletedAt(Long completedAt) { this.completedAt = completedAt; }
-    public void setExpiresAt(Long expiresAt) { this.expiresAt = expiresAt; }
+    public void setCompleted(boolean completed) {
+        if (this.completed != completed) {
+            this.completed = completed;
+            version++;
+        }
+    }
+    
+    public void setClaimed(boolean claimed) {
+        if (this.claimed != claimed) {
+            this.claimed = claimed;
+            version++;
+        }
+    }
+    
+    public void setStartedAt(long startedAt) {
+        if (this.startedAt != startedAt) {
+            this.startedAt = startedAt;
+            version++;
+        }
+    }
+    
+    public void setCompletedAt(Long completedAt) {
+        if (!Objects.equals(this.completedAt, completedAt)) {
+            this.completedAt = completedAt;
+            version++;
+        }
+    }
+    
+    public void setExpiresAt(Long expiresAt) {
+        if (!Objects.equals(this.expiresAt, expiresAt)) {
+            this.expiresAt = expiresAt;
+            version++;
+        }
+    }
 }
@@ -1,30 +1,44 @@
 package net.fliuxx.questplus.quest;
 
+import net.fliuxx.questplus.quest.signal.SignalKind;
+
+import java.util.Set;
+
 /**
  * Enum representing different types of quests
  */
 public enum QuestType {
-    COLLECT("Collect Items"),
-    KILL_MOB("Kill Mobs"),
-    VISIT_LOCATION("Visit Location"),
-    FISH("Fish Items"),
-    BREAK_BLOCK("Break Blocks"),
-    KILL_PLAYER("Kill Players"),
-    REACH_ALTITUDE("Reach Altitude"),
-    FIND_STRUCTURE("Find Structure"),
-    VILLAGER_INTERACT("Interact with Villager"),
-    VILLAGER_TRADE("Trade with Villager"),
-    SURVIVE("Survive"),
-    TRAVEL("Travel Distance"),
-    JUMP("Jump");
+    COLLECT("Collect Items", SignalKind.ITEM_OBTAIN),
+    KILL_MOB("Kill Mobs", SignalKind.ENTITY_KILL),
+    VISIT_LOCATION("Visit Location", SignalKind.MOVE, SignalKind.REGION_ENTER),
+    FISH("Fish Items", SignalKind.FISH_CATCH),
+    BREAK_BLOCK("Break Blocks", SignalKind.BLOCK_BREAK),
+    KILL_PLAYER("Kill Players", SignalKind.ENTITY_KILL),
+    REACH_ALTITUDE("Reach Altitude", SignalKind.MOVE),
+    FIND_STRUCTURE("Find Structure", SignalKind.MOVE),
+    VILLAGER_INTERACT("Interact with Villager", SignalKind.ENTITY_INTERACT),
+    VILLAGER_TRADE("Trade with Villager", SignalKind.MERCHANT_TRADE),
+    SURVIVE("Survive"), // Timer-based, consumes no signals
+    TRAVEL("Travel Distance", SignalKind.STATISTIC_POLL, SignalKind.TRAVEL_WALK, SignalKind.TRAVEL_SWIM, SignalKind.TRAVEL_FLY),
+    JUMP("Jump", SignalKind.JUMP);
     
     private final String displayName;
+    private final Set<SignalKind> signalKinds;
     
-    QuestType(String displayName) {
+    QuestType(String displayName, SignalKind... signalKinds) {
         this.displayName = displayName;
+        this.signalKinds = Set.of(signalKinds);
     }
     
     public String getDisplayName() {
         return displayName;
     }
+    
+    /**
+     * Gets the signal kinds that can progress quests of this type
+     * @return Consumed signal kinds (empty for timer-based types)
+     */
+    public Set<SignalKind> getSignalKinds() {
+        return signalKinds;
+    }
 }
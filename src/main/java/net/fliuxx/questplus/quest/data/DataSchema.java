@@ -0,0 +1,71 @@
+package net.fliuxx.questplus.quest.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Declares the data slots of a quest type, held in a static field of the type.
+ * Tags identify slots in stored data and must never be reused for a different value.
+ */
+public final class DataSchema {
+    
+    static final int MAX_SLOTS = 64; // One presence bit per slot
+    
+    private final List<DataSlot> slots;
+    
+    public DataSchema() {
+        this.slots = new ArrayList<>();
+    }
+    
+    public DataSlot intSlot(int tag, String name) {
+        return declare(tag, name, DataSlot.Type.INT);
+    }
+    
+    public DataSlot longSlot(int tag, String name) {
+        return declare(tag, name, DataSlot.Type.LONG);
+    }
+    
+    public DataSlot doubleSlot(int tag, String name) {
+        return declare(tag, name, DataSlot.Type.DOUBLE);
+    }
+    
+    public DataSlot booleanSlot(int tag, String name) {
+        return declare(tag, name, DataSlot.Type.BOOLEAN);
+    }
+    
+    private synchronized DataSlot declare(int tag, String name, DataSlot.Type type) {
+        if (tag < 0 || tag > 255) {
+            throw new IllegalArgumentException("Slot tag must fit in a byte: " + tag);
+        }
+        if (slots.size() == MAX_SLOTS) {
+            throw new IllegalStateException("Too many data slots, at most " + MAX_SLOTS + " are supported");
+        }
+        if (getSlot(tag) != null) {
+            throw new IllegalArgumentException("Duplicate slot tag: " + tag);
+        }
+        
+        DataSlot slot = new DataSlot(this, slots.size(), tag, name, type);
+        slots.add(slot);
+        return slot;
+    }
+    
+    /**
+     * @return The slot with the given tag, or null if this schema does not declare it
+     */
+    DataSlot getSlot(int tag) {
+        for (DataSlot slot : slots) {
+            if (slot.getTag() == tag) {
+                return slot;
+            }
+        }
+        return null;
+    }
+    
+    List<DataSlot> getSlots() {
+        return slots;
+    }
+    
+    int size() {
+        return slots.size();
+    }
+}
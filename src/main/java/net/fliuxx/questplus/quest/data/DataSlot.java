@@ -0,0 +1,32 @@
+package net.fliuxx.questplus.quest.data;
+
+/**
+ * Typed key of a value a quest type keeps in its progress data.
+ * Slots are declared once per quest type through a {@link DataSchema}.
+ */
+public final class DataSlot {
+    
+    public enum Type {
+        INT, LONG, DOUBLE, BOOLEAN
+    }
+    
+    private final DataSchema schema;
+    private final int index; // Position in the schema's value array
+    private final int tag; // Stable identifier in the encoded form
+    private final String name; // Key in legacy JSON data
+    private final Type type;
+    
+    DataSlot(DataSchema schema, int index, int tag, String name, Type type) {
+        this.schema = schema;
+        this.index = index;
+        this.tag = tag;
+        this.name = name;
+        this.type = type;
+    }
+    
+    public DataSchema getSchema() { return schema; }
+    public int getIndex() { return index; }
+    public int getTag() { return tag; }
+    public String getName() { return name; }
+    public Type getType() { return type; }
+}
@@ -0,0 +1,244 @@
+package net.fliuxx.questplus.quest.data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import org.bukkit.Bukkit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Base64;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Custom data of one quest progress, stored as primitives in the slots of its quest type's schema.
+ * Stored data is only decoded once a slot is first accessed, and is written back as is when
+ * nothing changed, so saving progress whose data was never touched costs nothing.
+ * <p>
+ * Encoded form, Base64 in the data column: format version byte, entry count byte, then per
+ * entry the slot tag byte, the type byte and the value. Data starting with '{' is legacy Gson
+ * JSON and is read by slot name.
+ */
+public final class ProgressData {
+    
+    static final int FORMAT_VERSION = 1;
+    
+    private static final Gson GSON = new Gson();
+    private static final Type LEGACY_TYPE = new TypeToken<Map<String, Object>>(){}.getType();
+    
+    private DataSchema schema; // null until the first slot access
+    private long[] values; // Doubles as raw bits, booleans as 0 or 1
+    private long present; // Bit per slot index
+    private String encoded; // Stored form, null when it has to be encoded again
+    private int version; // Bumped on every change
+    
+    /**
+     * Replaces the data with its stored form, decoded on the first slot access
+     * @param stored The stored data, null or empty for none
+     */
+    public synchronized void load(String stored) {
+        schema = null;
+        values = null;
+        present = 0;
+        encoded = stored != null && !stored.isEmpty() ? stored : null;
+    }
+    
+    /**
+     * @return A number that changes whenever a slot value changes
+     */
+    public synchronized int getVersion() {
+        return version;
+    }
+    
+    /**
+     * @return The stored form of the data, or null if no slot holds a value
+     */
+    public synchronized String encode() {
+        if (schema == null || encoded != null) {
+            return encoded;
+        }
+        if (present == 0) {
+            return null;
+        }
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(Long.bitCount(present));
+            for (DataSlot slot : schema.getSlots()) {
+                if (!isPresent(slot)) continue;
+                
+                long value = values[slot.getIndex()];
+                out.writeByte(slot.getTag());
+                out.writeByte(slot.getType().ordinal());
+                switch (slot.getType()) {
+                    case INT -> out.writeInt((int) value);
+                    case LONG -> out.writeLong(value);
+                    case DOUBLE -> out.writeDouble(Double.longBitsToDouble(value));
+                    case BOOLEAN -> out.writeBoolean(value != 0);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory encoding failed", e);
+        }
+        
+        encoded = Base64.getEncoder().encodeToString(bytes.toByteArray());
+        return encoded;
+    }
+    
+    public synchronized boolean has(DataSlot slot) {
+        bind(slot.getSchema());
+        return isPresent(slot);
+    }
+    
+    public synchronized void remove(DataSlot slot) {
+        bind(slot.getSchema());
+        if (isPresent(slot)) {
+            present &= ~(1L << slot.getIndex());
+            encoded = null;
+            version++;
+        }
+    }
+    
+    public int getInt(DataSlot slot) {
+        return (int) get(slot, DataSlot.Type.INT);
+    }
+    
+    public long getLong(DataSlot slot) {
+        return get(slot, DataSlot.Type.LONG);
+    }
+    
+    public double getDouble(DataSlot slot) {
+        return Double.longBitsToDouble(get(slot, DataSlot.Type.DOUBLE));
+    }
+    
+    public boolean getBoolean(DataSlot slot) {
+        return get(slot, DataSlot.Type.BOOLEAN) != 0;
+    }
+    
+    public void setInt(DataSlot slot, int value) {
+        set(slot, DataSlot.Type.INT, value);
+    }
+    
+    public void setLong(DataSlot slot, long value) {
+        set(slot, DataSlot.Type.LONG, value);
+    }
+    
+    public void setDouble(DataSlot slot, double value) {
+        set(slot, DataSlot.Type.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+    
+    public void setBoolean(DataSlot slot, boolean value) {
+        set(slot, DataSlot.Type.BOOLEAN, value ? 1 : 0);
+    }
+    
+    private synchronized long get(DataSlot slot, DataSlot.Type type) {
+        checkType(slot, type);
+        bind(slot.getSchema());
+        return isPresent(slot) ? values[slot.getIndex()] : 0;
+    }
+    
+    private synchronized void set(DataSlot slot, DataSlot.Type type, long value) {
+        checkType(slot, type);
+        bind(slot.getSchema());
+        if (isPresent(slot) && values[slot.getIndex()] == value) return;
+        
+        values[slot.getIndex()] = value;
+        present |= 1L << slot.getIndex();
+        encoded = null;
+        version++;
+    }
+    
+    private boolean isPresent(DataSlot slot) {
+        return (present & (1L << slot.getIndex())) != 0;
+    }
+    
+    private static void checkType(DataSlot slot, DataSlot.Type type) {
+        if (slot.getType() != type) {
+            throw new IllegalArgumentException("Slot " + slot.getName() + " holds " + slot.getType() + ", not " + type);
+        }
+    }
+    
+    private void bind(DataSchema target) {
+        if (schema == target) return;
+        
+        // Re-read the previous values when the quest type changed on a reload
+        String stored = encode();
+        schema = target;
+        values = new long[target.size()];
+        present = 0;
+        encoded = null;
+        
+        if (stored != null) {
+            if (stored.charAt(0) == '{') {
+                decodeLegacy(stored);
+            } else {
+                decode(stored);
+            }
+        }
+    }
+    
+    private void decode(String stored) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(stored)))) {
+            int version = in.readUnsignedByte();
+            if (version > FORMAT_VERSION) {
+                Bukkit.getLogger().warning("Discarding quest data written by a newer format version: " + version);
+                return;
+            }
+            
+            int count = in.readUnsignedByte();
+            for (int i = 0; i < count; i++) {
+                DataSlot slot = schema.getSlot(in.readUnsignedByte());
+                DataSlot.Type type = DataSlot.Type.values()[in.readUnsignedByte()];
+                long value = switch (type) {
+                    case INT -> in.readInt();
+                    case LONG -> in.readLong();
+                    case DOUBLE -> Double.doubleToRawLongBits(in.readDouble());
+                    case BOOLEAN -> in.readBoolean() ? 1 : 0;
+                };
+                
+                // Values of slots the quest type no longer declares are dropped
+                if (slot != null && slot.getType() == type) {
+                    values[slot.getIndex()] = value;
+                    present |= 1L << slot.getIndex();
+                }
+            }
+        } catch (IOException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            Bukkit.getLogger().log(Level.WARNING, "Discarding unreadable quest data", e);
+        }
+    }
+    
+    private void decodeLegacy(String json) {
+        Map<String, Object> legacy;
+        try {
+            legacy = GSON.fromJson(json, LEGACY_TYPE);
+        } catch (JsonSyntaxException e) {
+            Bukkit.getLogger().log(Level.WARNING, "Discarding unreadable legacy quest data", e);
+            return;
+        }
+        if (legacy == null) return;
+        
+        // Gson reads every number as a double
+        for (DataSlot slot : schema.getSlots()) {
+            Object value = legacy.get(slot.getName());
+            if (value instanceof Number number) {
+                values[slot.getIndex()] = switch (slot.getType()) {
+                    case INT -> number.intValue();
+                    case LONG -> number.longValue();
+                    case DOUBLE -> Double.doubleToRawLongBits(number.doubleValue());
+                    case BOOLEAN -> number.intValue() != 0 ? 1 : 0;
+                };
+            } else if (value instanceof Boolean bool && slot.getType() == DataSlot.Type.BOOLEAN) {
+                values[slot.getIndex()] = bool ? 1 : 0;
+            } else {
+                continue;
+            }
+            present |= 1L << slot.getIndex();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package net.fliuxx.questplus.quest.region;
+
+import org.bukkit.Location;
+
+/**
+ * Spherical (or cylindrical, when the height is ignored) area a quest objective refers to.
+ * Worlds are referenced by name so regions can be built before the worlds are loaded.
+ */
+public final class QuestRegion {
+    
+    private final String questId;
+    private final String worldName; // null = any world
+    private final double x;
+    private final double y;
+    private final double z;
+    private final boolean ignoreY;
+    private final double radius;
+    private final double radiusSquared;
+    
+    public QuestRegion(String questId, String worldName, double x, double y, double z, boolean ignoreY, double radius) {
+        this.questId = questId;
+        this.worldName = worldName;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.ignoreY = ignoreY;
+        this.radius = radius;
+        this.radiusSquared = radius * radius;
+    }
+    
+    public boolean contains(Location location) {
+        if (worldName != null && !worldName.equals(location.getWorld().getName())) {
+            return false;
+        }
+        
+        double dx = location.getX() - x;
+        double dz = location.getZ() - z;
+        double dy = ignoreY ? 0 : location.getY() - y;
+        return dx * dx + dy * dy + dz * dz <= radiusSquared;
+    }
+    
+    public String getQuestId() { return questId; }
+    public String getWorldName() { return worldName; }
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getZ() { return z; }
+    public boolean isIgnoreY() { return ignoreY; }
+    public double getRadius() { return radius; }
+}
@@ -0,0 +1,96 @@
+package net.fliuxx.questplus.quest.region;
+
+import org.bukkit.Location;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-world chunk grid of quest regions.
+ * A lookup is one chunk-key probe followed by squared-distance checks against the
+ * few regions overlapping that chunk. Immutable, rebuilt whenever quests are loaded.
+ */
+public final class RegionIndex {
+    
+    private static final int MAX_INDEXED_CHUNKS = 1024; // Larger regions are checked linearly
+    private static final String ANY_WORLD = "";
+    
+    private final Map<String, Map<Long, List<QuestRegion>>> grids;
+    private final Map<String, List<QuestRegion>> oversized;
+    
+    public RegionIndex(Collection<QuestRegion> regions) {
+        this.grids = new HashMap<>();
+        this.oversized = new HashMap<>();
+        
+        for (QuestRegion region : regions) {
+            add(region);
+        }
+    }
+    
+    private void add(QuestRegion region) {
+        String worldKey = region.getWorldName() != null ? region.getWorldName() : ANY_WORLD;
+        
+        int minChunkX = (int) Math.floor(region.getX() - region.getRadius()) >> 4;
+        int maxChunkX = (int) Math.floor(region.getX() + region.getRadius()) >> 4;
+        int minChunkZ = (int) Math.floor(region.getZ() - region.getRadius()) >> 4;
+        int maxChunkZ = (int) Math.floor(region.getZ() + region.getRadius()) >> 4;
+        
+        long chunkCount = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+        if (chunkCount > MAX_INDEXED_CHUNKS) {
+            oversized.computeIfAbsent(worldKey, k -> new ArrayList<>()).add(region);
+            return;
+        }
+        
+        Map<Long, List<QuestRegion>> grid = grids.computeIfAbsent(worldKey, k -> new HashMap<>());
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                grid.computeIfAbsent(chunkKey(chunkX, chunkZ), k -> new ArrayList<>()).add(region);
+            }
+        }
+    }
+    
+    /**
+     * Gets every region containing the given location
+     * @param location The location to test
+     * @return Containing regions, empty if none
+     */
+    public List<QuestRegion> getRegionsAt(Location location) {
+        long key = chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        String worldName = location.getWorld().getName();
+        
+        List<QuestRegion> result = collect(null, grids.get(worldName), key, location);
+        result = collect(result, grids.get(ANY_WORLD), key, location);
+        result = collect(result, oversized.get(worldName), location);
+        result = collect(result, oversized.get(ANY_WORLD), location);
+        
+        return result != null ? result : List.of();
+    }
+    
+    private List<QuestRegion> collect(List<QuestRegion> result, Map<Long, List<QuestRegion>> grid, long key, Location location) {
+        if (grid == null) return result;
+        
+        return collect(result, grid.get(key), location);
+    }
+    
+    private List<QuestRegion> collect(List<QuestRegion> result, List<QuestRegion> candidates, Location location) {
+        if (candidates == null) return result;
+        
+        for (QuestRegion region : candidates) {
+            if (region.contains(location)) {
+                if (result == null) {
+                    result = new ArrayList<>(2);
+                }
+                result.add(region);
+            }
+        }
+        
+        return result;
+    }
+    
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,186 @@
+package net.fliuxx.questplus.quest.region;
+
+import net.fliuxx.questplus.QuestPlus;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.generator.structure.StructureType;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.util.StructureSearchResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Shared, cached structure lookups for structure quests.
+ * Results are cached per world, cell and structure type with LRU eviction, and
+ * concurrent requests for the same cell share one search. World.locateNearestStructure
+ * is not safe off the main thread, so searches are queued and run on the main thread
+ * under a per-tick budget instead of inline with the triggering event. Entries of a world
+ * are dropped when it unloads, cached locations would otherwise keep it in memory.
+ */
+public class StructureLocator implements Listener {
+    
+    private static final int CELL_SHIFT = 6; // 64 block cells
+    
+    private final QuestPlus plugin;
+    private final int cacheSize;
+    private final int lookupsPerTick;
+    private final Map<CellKey, Optional<Location>> cache; // Main thread only
+    private final Map<CellKey, CompletableFuture<Optional<Location>>> pending;
+    private final Queue<CellKey> queue;
+    private final Set<Waiter> waiting; // Players re-checked once their quest's lookups finish
+    
+    public StructureLocator(QuestPlus plugin) {
+        this.plugin = plugin;
+        this.cacheSize = plugin.getConfigManager().getStructureCacheSize();
+        this.lookupsPerTick = plugin.getConfigManager().getStructureLookupsPerTick();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CellKey, Optional<Location>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.pending = new HashMap<>();
+        this.queue = new ArrayDeque<>();
+        this.waiting = new HashSet<>();
+        
+        Bukkit.getPluginManager().registerEvents(this, plugin);
+        startLookupTask();
+    }
+    
+    /**
+     * Gets the nearest structure of the given type around the cell containing the location.
+     * Completes immediately when cached, otherwise once the queued search has run.
+     * @param location Location to search around
+     * @param structureType Structure to find
+     * @param searchRadius Search radius in chunks
+     * @return Future with the structure location, empty if none was found
+     */
+    public CompletableFuture<Optional<Location>> locate(Location location, StructureType structureType, int searchRadius) {
+        CellKey key = new CellKey(location.getWorld().getName(), location.getBlockX() >> CELL_SHIFT,
+                location.getBlockZ() >> CELL_SHIFT, structureType, searchRadius);
+        
+        Optional<Location> cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        
+        // Share the search already queued for this cell
+        return pending.computeIfAbsent(key, k -> {
+            queue.add(k);
+            return new CompletableFuture<>();
+        });
+    }
+    
+    /**
+     * Runs the callback with the results once every lookup has finished. A player already
+     * waiting on lookups for the quest is not queued again, so moves made meanwhile cannot
+     * credit the same find twice.
+     * @param player Player the lookups were made for
+     * @param questId Quest the lookups were made for
+     * @param lookups Lookups returned by {@link #locate}
+     * @param callback Receives the results, in the order of the lookups
+     */
+    public void awaitLookups(Player player, String questId, List<CompletableFuture<Optional<Location>>> lookups,
+                             Consumer<List<Optional<Location>>> callback) {
+        Waiter waiter = new Waiter(player.getUniqueId(), questId);
+        if (!waiting.add(waiter)) {
+            return;
+        }
+        
+        CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            waiting.remove(waiter);
+            
+            List<Optional<Location>> results = new ArrayList<>(lookups.size());
+            for (CompletableFuture<Optional<Location>> lookup : lookups) {
+                results.add(lookup.isCompletedExceptionally() ? Optional.empty() : lookup.join());
+            }
+            callback.accept(results);
+        });
+    }
+    
+    @EventHandler
+    public void onWorldUnload(WorldUnloadEvent event) {
+        String worldName = event.getWorld().getName();
+        cache.keySet().removeIf(key -> key.worldName().equals(worldName));
+        queue.removeIf(key -> key.worldName().equals(worldName));
+        
+        // Searches that will no longer run find nothing, so their waiters are released. Completed
+        // after removal, callbacks may start new lookups
+        List<CompletableFuture<Optional<Location>>> dropped = new ArrayList<>();
+        Iterator<Map.Entry<CellKey, CompletableFuture<Optional<Location>>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CellKey, CompletableFuture<Optional<Location>>> entry = iterator.next();
+            if (entry.getKey().worldName().equals(worldName)) {
+                iterator.remove();
+                dropped.add(entry.getValue());
+            }
+        }
+        dropped.forEach(future -> future.complete(Optional.empty()));
+    }
+    
+    private void startLookupTask() {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < lookupsPerTick && !queue.isEmpty(); i++) {
+                    CellKey key = queue.poll();
+                    Optional<Location> result = search(key);
+                    
+                    cache.put(key, result);
+                    CompletableFuture<Optional<Location>> future = pending.remove(key);
+                    if (future != null) {
+                        future.complete(result);
+                    }
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    private Optional<Location> search(CellKey key) {
+        World world = Bukkit.getWorld(key.worldName());
+        if (world == null) {
+            return Optional.empty();
+        }
+        
+        // Search from the cell center so every player in the cell shares the result
+        int centerX = (key.cellX() << CELL_SHIFT) + (1 << (CELL_SHIFT - 1));
+        int centerZ = (key.cellZ() << CELL_SHIFT) + (1 << (CELL_SHIFT - 1));
+        Location center = new Location(world, centerX, 64, centerZ);
+        
+        try {
+            StructureSearchResult result = world.locateNearestStructure(center, key.structureType(), key.searchRadius(), false);
+            if (result == null || result.getLocation() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(result.getLocation());
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to locate structure " + key.structureType().getKey(), e);
+            return Optional.empty();
+        }
+    }
+    
+    private record CellKey(String worldName, int cellX, int cellZ, StructureType structureType, int searchRadius) {
+    }
+    
+    private record Waiter(UUID playerId, String questId) {
+    }
+}
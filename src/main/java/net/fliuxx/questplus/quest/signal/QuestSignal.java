@@ -0,0 +1,65 @@
+package net.fliuxx.questplus.quest.signal;
+
+import net.fliuxx.questplus.quest.region.QuestRegion;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+
+/**
+ * Immutable, normalized description of something a player did.
+ * Built once per Bukkit event by the listener and shared by every interested quest handler,
+ * so handlers never inspect raw events. Fields not relevant to the kind are null or zero.
+ */
+public final class QuestSignal {
+    
+    private final SignalKind kind;
+    private final Player player;
+    private final Material material;
+    private final EntityType entityType;
+    private final int amount;
+    private final Location location;
+    private final Location origin;
+    private final QuestRegion region;
+    
+    private QuestSignal(SignalKind kind, Player player, Material material, EntityType entityType,
+                        int amount, Location location, Location origin, QuestRegion region) {
+        this.kind = kind;
+        this.player = player;
+        this.material = material;
+        this.entityType = entityType;
+        this.amount = amount;
+        this.location = location;
+        this.origin = origin;
+        this.region = region;
+    }
+    
+    public static QuestSignal ofMaterial(SignalKind kind, Player player, Material material, int amount, Location location) {
+        return new QuestSignal(kind, player, material, null, amount, location, null, null);
+    }
+    
+    public static QuestSignal ofEntity(SignalKind kind, Player player, EntityType entityType, Location location) {
+        return new QuestSignal(kind, player, null, entityType, 1, location, null, null);
+    }
+    
+    public static QuestSignal ofMove(Player player, Location origin, Location location) {
+        return new QuestSignal(SignalKind.MOVE, player, null, null, 0, location, origin, null);
+    }
+    
+    public static QuestSignal ofRegion(Player player, QuestRegion region, Location location) {
+        return new QuestSignal(SignalKind.REGION_ENTER, player, null, null, 1, location, null, region);
+    }
+    
+    public static QuestSignal ofAmount(SignalKind kind, Player player, int amount) {
+        return new QuestSignal(kind, player, null, null, amount, null, null, null);
+    }
+    
+    public SignalKind getKind() { return kind; }
+    public Player getPlayer() { return player; }
+    public Material getMaterial() { return material; }
+    public EntityType getEntityType() { return entityType; }
+    public int getAmount() { return amount; }
+    public Location getLocation() { return location; }
+    public Location getOrigin() { return origin; }
+    public QuestRegion getRegion() { return region; }
+}
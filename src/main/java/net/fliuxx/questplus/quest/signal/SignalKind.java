@@ -0,0 +1,20 @@
+package net.fliuxx.questplus.quest.signal;
+
+/**
+ * Kinds of quest signals, independent of the Bukkit events they are produced from
+ */
+public enum SignalKind {
+    ITEM_OBTAIN, // Picked up, crafted or smelted: material, amount
+    ENTITY_KILL, // Entity killed by the player: entity type, location
+    BLOCK_BREAK, // Block broken: material, location
+    MOVE, // Moved to a new position: origin, location
+    REGION_ENTER, // Moved to a new block inside a quest region: region, location
+    TRAVEL_WALK, // Distance walked since the last flush: amount in centimeters
+    TRAVEL_SWIM, // Distance swum since the last flush: amount in centimeters
+    TRAVEL_FLY, // Distance flown since the last flush: amount in centimeters
+    STATISTIC_POLL, // Periodic poll for statistic-driven quests
+    JUMP, // Jumped: amount
+    FISH_CATCH, // Item fished: material, amount
+    ENTITY_INTERACT, // Right clicked an entity: entity type, location
+    MERCHANT_TRADE // Took a trade result: entity type of the merchant
+}
@@ -1,11 +1,19 @@
 package net.fliuxx.questplus.quest.types;
 
+import net.fliuxx.questplus.QuestPlus;
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestProgress;
+import net.fliuxx.questplus.quest.region.QuestRegion;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
+import net.fliuxx.questplus.quest.signal.SignalKind;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Event;
+
+import java.util.Set;
 
 /**
- * Abstract base class for all quest type handlers
+ * Abstract base class for all quest type handlers.
+ * Handlers are built once per quest definition and shared by every player,
+ * so they must not hold per-player state; use {@link QuestProgress} data instead.
  */
 public abstract class AbstractQuestType {
     
@@ -16,12 +24,29 @@ public abstract class AbstractQuestType {
     }
     
     /**
-     * Checks if the given event should count towards quest progress
-     * @param player The player involved in the event
-     * @param event The event that occurred
-     * @return The amount of progress to add (0 if event doesn't count)
+     * Checks if the given signal should count towards quest progress
+     * @param player The player the signal belongs to
+     * @param progress The player's progress for this quest
+     * @param signal The normalized signal, one of the kinds returned by {@link #getSignalKinds()}
+     * @return The amount of progress to add (0 if signal doesn't count)
      */
-    public abstract int checkProgress(Player player, Event event);
+    public abstract int checkProgress(Player player, QuestProgress progress, QuestSignal signal);
+    
+    /**
+     * Gets the signal kinds this handler consumes, defaults to those of the quest type
+     * @return Signal kinds the quest should be indexed under
+     */
+    public Set<SignalKind> getSignalKinds() {
+        return quest.getType().getSignalKinds();
+    }
+    
+    /**
+     * Gets the region this quest registers in the region index
+     * @return The region, or null if the quest is not location based
+     */
+    public QuestRegion getRegion() {
+        return null;
+    }
     
     /**
      * Gets a human-readable description of what the player needs to do
@@ -32,28 +57,49 @@ public abstract class AbstractQuestType {
     /**
      * Called when a player accepts this quest (for setup if needed)
      * @param player The player who accepted the quest
+     * @param progress The player's progress for this quest
      */
-    public void onQuestAccepted(Player player) {
+    public void onQuestAccepted(Player player, QuestProgress progress) {
+        // Default implementation does nothing
+    }
+    
+    /**
+     * Called when an active quest's progress is loaded for a player, on the main thread
+     * @param player The player whose progress was loaded
+     * @param progress The player's progress for this quest
+     */
+    public void onProgressLoaded(Player player, QuestProgress progress) {
         // Default implementation does nothing
     }
     
     /**
      * Called when a player completes this quest
      * @param player The player who completed the quest
+     * @param progress The player's progress for this quest
      */
-    public void onQuestCompleted(Player player) {
+    public void onQuestCompleted(Player player, QuestProgress progress) {
         // Default implementation does nothing
     }
     
     /**
      * Called when this quest expires for a player
      * @param player The player whose quest expired
+     * @param progress The player's progress for this quest
      */
-    public void onQuestExpired(Player player) {
+    public void onQuestExpired(Player player, QuestProgress progress) {
         // Default implementation does nothing
     }
     
     protected Quest getQuest() {
         return quest;
     }
+    
+    /**
+     * Reports a type-config value that could not be resolved
+     * @param key The type-config key holding the value
+     * @param value The invalid value
+     */
+    protected void warnInvalidValue(String key, String value) {
+        QuestPlus.getInstance().getLogger().warning("Quest '" + quest.getId() + "' has an invalid " + key + " value in type-config: " + value);
+    }
 }
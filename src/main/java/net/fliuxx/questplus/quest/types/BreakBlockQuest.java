@@ -1,60 +1,36 @@
 package net.fliuxx.questplus.quest.types;
 
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestProgress;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
 import org.bukkit.Material;
+import org.bukkit.Tag;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Event;
-import org.bukkit.event.block.BlockBreakEvent;
-
-import java.util.List;
 
 /**
  * Quest type for breaking blocks
  */
 public class BreakBlockQuest extends AbstractQuestType {
     
-    private final List<Material> allowedBlocks;
-    private final boolean anyBlock;
+    private final TargetMatcher<Material> allowedBlocks;
     
     public BreakBlockQuest(Quest quest) {
         super(quest);
         
         ConfigurationSection config = quest.getTypeConfig();
-        if (config != null) {
-            List<String> blockNames = config.getStringList("blocks");
-            this.allowedBlocks = blockNames.stream()
-                    .map(name -> {
-                        try {
-                            return Material.valueOf(name.toUpperCase());
-                        } catch (IllegalArgumentException e) {
-                            return null;
-                        }
-                    })
-                    .filter(material -> material != null && material.isBlock())
-                    .toList();
-            
-            this.anyBlock = config.getBoolean("any-block", false);
+        if (config != null && !config.getBoolean("any-block", false)) {
+            this.allowedBlocks = TargetMatcher.compile(Material.class, config.getStringList("blocks"), Material::isBlock,
+                    name -> warnInvalidValue("blocks", name), Tag.REGISTRY_BLOCKS);
         } else {
-            this.allowedBlocks = List.of();
-            this.anyBlock = true;
+            this.allowedBlocks = TargetMatcher.any(Material.class);
         }
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        if (!(event instanceof BlockBreakEvent breakEvent)) {
-            return 0;
-        }
-        
-        if (breakEvent.getPlayer() != player) {
-            return 0;
-        }
-        
-        Material blockType = breakEvent.getBlock().getType();
-        
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
         // Check if this block type counts
-        if (anyBlock || allowedBlocks.isEmpty() || allowedBlocks.contains(blockType)) {
+        if (allowedBlocks.matches(signal.getMaterial())) {
             return 1;
         }
         
@@ -63,16 +39,13 @@ public class BreakBlockQuest extends AbstractQuestType {
     
     @Override
     public String getProgressDescription() {
-        if (anyBlock || allowedBlocks.isEmpty()) {
+        if (allowedBlocks.isMatchAny()) {
             return "Break " + quest.getTarget() + " blocks";
-        } else if (allowedBlocks.size() == 1) {
-            return "Break " + quest.getTarget() + " " + allowedBlocks.get(0).name().toLowerCase().replace("_", " ");
+        } else if (allowedBlocks.getDisplayNames().size() == 1) {
+            return "Break " + quest.getTarget() + " " + allowedBlocks.getDisplayNames().get(0);
         } else {
             return "Break " + quest.getTarget() + " of: " + 
-                   allowedBlocks.stream()
-                           .map(m -> m.name().toLowerCase().replace("_", " "))
-                           .reduce((a, b) -> a + ", " + b)
-                           .orElse("blocks");
+                   String.join(", ", allowedBlocks.getDisplayNames());
         }
     }
 }
@@ -1,23 +1,30 @@
 package net.fliuxx.questplus.quest.types;
 
+import net.fliuxx.questplus.QuestPlus;
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestManager;
+import net.fliuxx.questplus.quest.QuestProgress;
+import net.fliuxx.questplus.quest.region.StructureLocator;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
 import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
 import org.bukkit.Registry;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Event;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.generator.structure.StructureType;
-import org.bukkit.util.StructureSearchResult;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Quest type for finding natural structures
  */
 public class FindStructureQuest extends AbstractQuestType {
     
+    private static final double FOUND_DISTANCE_SQUARED = 50 * 50; // Close enough to the structure
+    
     private final List<StructureType> targetStructures;
     private final int searchRadius;
     
@@ -29,12 +36,17 @@ public class FindStructureQuest extends AbstractQuestType {
             List<String> structureNames = config.getStringList("structures");
             this.targetStructures = structureNames.stream()
                     .map(name -> {
+                        StructureType structureType = null;
                         try {
                             NamespacedKey key = NamespacedKey.minecraft(name.toLowerCase());
-                            return Registry.STRUCTURE_TYPE.get(key);
-                        } catch (Exception e) {
-                            return null;
+                            structureType = Registry.STRUCTURE_TYPE.get(key);
+                        } catch (Exception ignored) {
+                        }
+                        
+                        if (structureType == null) {
+                            warnInvalidValue("structures", name);
                         }
+                        return structureType;
                     })
                     .filter(structure -> structure != null)
                     .toList();
@@ -47,36 +59,55 @@ public class FindStructureQuest extends AbstractQuestType {
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        if (!(event instanceof PlayerMoveEvent moveEvent)) {
-            return 0;
-        }
-        
-        Location to = moveEvent.getTo();
-        if (to == null) {
-            return 0;
-        }
-        
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
         // Only check if player moved to a different chunk to avoid performance issues
-        Location from = moveEvent.getFrom();
-        if (from.getChunk().equals(to.getChunk())) {
+        Location from = signal.getOrigin();
+        Location to = signal.getLocation();
+        if ((from.getBlockX() >> 4) == (to.getBlockX() >> 4) && (from.getBlockZ() >> 4) == (to.getBlockZ() >> 4)) {
             return 0;
         }
         
-        // Check for structures near the player
+        // Check for structures near the player, searches are shared and cached by the locator
+        StructureLocator locator = QuestPlus.getInstance().getStructureLocator();
+        List<CompletableFuture<Optional<Location>>> pending = new ArrayList<>();
         for (StructureType structureType : targetStructures) {
-            StructureSearchResult searchResult = to.getWorld().locateNearestStructure(to, structureType, searchRadius, false);
-            if (searchResult != null) {
-                Location structureLocation = searchResult.getLocation();
-                if (structureLocation != null && structureLocation.distance(to) <= 50) { // Close enough to the structure
+            CompletableFuture<Optional<Location>> lookup = locator.locate(to, structureType, searchRadius);
+            if (lookup.isDone()) {
+                if (isNear(lookup.join(), to)) {
                     return 1; // Quest completed
                 }
+                continue;
             }
+            pending.add(lookup);
+        }
+        
+        // Not searched yet, re-check the player's position once the results are in
+        if (!pending.isEmpty()) {
+            locator.awaitLookups(player, quest.getId(), pending, results -> {
+                QuestManager questManager = QuestPlus.getInstance().getQuestManager();
+                // Only credit the progress the lookups were made for, not one accepted again since
+                if (!player.isOnline() || progress.isCompleted()
+                        || questManager.getActiveQuest(player, quest.getId()) != progress) return;
+                
+                Location location = player.getLocation();
+                for (Optional<Location> result : results) {
+                    if (isNear(result, location)) {
+                        questManager.updateQuestProgress(player, quest.getId(), 1);
+                        return;
+                    }
+                }
+            });
         }
         
         return 0;
     }
     
+    private boolean isNear(Optional<Location> structureLocation, Location location) {
+        return structureLocation.isPresent()
+                && structureLocation.get().getWorld().equals(location.getWorld())
+                && structureLocation.get().distanceSquared(location) <= FOUND_DISTANCE_SQUARED;
+    }
+    
     @Override
     public String getProgressDescription() {
         if (targetStructures.size() == 1) {
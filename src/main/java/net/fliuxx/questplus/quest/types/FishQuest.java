@@ -1,64 +1,37 @@
 package net.fliuxx.questplus.quest.types;
 
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestProgress;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
 import org.bukkit.Material;
+import org.bukkit.Tag;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Event;
-import org.bukkit.event.player.PlayerFishEvent;
-import org.bukkit.inventory.ItemStack;
-
-import java.util.List;
 
 /**
  * Quest type for fishing specific items
  */
 public class FishQuest extends AbstractQuestType {
     
-    private final List<Material> allowedItems;
-    private final boolean anyFish;
+    private final TargetMatcher<Material> allowedItems;
     
     public FishQuest(Quest quest) {
         super(quest);
         
         ConfigurationSection config = quest.getTypeConfig();
-        if (config != null) {
-            List<String> itemNames = config.getStringList("items");
-            this.allowedItems = itemNames.stream()
-                    .map(name -> {
-                        try {
-                            return Material.valueOf(name.toUpperCase());
-                        } catch (IllegalArgumentException e) {
-                            return null;
-                        }
-                    })
-                    .filter(material -> material != null)
-                    .toList();
-            
-            this.anyFish = config.getBoolean("any-fish", false);
+        if (config != null && !config.getBoolean("any-fish", false)) {
+            this.allowedItems = TargetMatcher.compile(Material.class, config.getStringList("items"), Material::isItem,
+                    name -> warnInvalidValue("items", name), Tag.REGISTRY_ITEMS);
         } else {
-            this.allowedItems = List.of();
-            this.anyFish = true;
+            this.allowedItems = TargetMatcher.any(Material.class);
         }
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        if (!(event instanceof PlayerFishEvent fishEvent)) {
-            return 0;
-        }
-        
-        if (fishEvent.getPlayer() != player || fishEvent.getState() != PlayerFishEvent.State.CAUGHT_FISH) {
-            return 0;
-        }
-        
-        if (fishEvent.getCaught() instanceof org.bukkit.entity.Item item) {
-            ItemStack caught = item.getItemStack();
-            
-            // Check if this item counts
-            if (anyFish || allowedItems.isEmpty() || allowedItems.contains(caught.getType())) {
-                return caught.getAmount();
-            }
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
+        // Check if this item counts
+        if (allowedItems.matches(signal.getMaterial())) {
+            return signal.getAmount();
         }
         
         return 0;
@@ -66,16 +39,13 @@ public class FishQuest extends AbstractQuestType {
     
     @Override
     public String getProgressDescription() {
-        if (anyFish || allowedItems.isEmpty()) {
+        if (allowedItems.isMatchAny()) {
             return "Fish " + quest.getTarget() + " items";
-        } else if (allowedItems.size() == 1) {
-            return "Fish " + quest.getTarget() + " " + allowedItems.get(0).name().toLowerCase().replace("_", " ");
+        } else if (allowedItems.getDisplayNames().size() == 1) {
+            return "Fish " + quest.getTarget() + " " + allowedItems.getDisplayNames().get(0);
         } else {
             return "Fish " + quest.getTarget() + " of: " + 
-                   allowedItems.stream()
-                           .map(m -> m.name().toLowerCase().replace("_", " "))
-                           .reduce((a, b) -> a + ", " + b)
-                           .orElse("items");
+                   String.join(", ", allowedItems.getDisplayNames());
         }
     }
 }
@@ -1,57 +1,35 @@
 package net.fliuxx.questplus.quest.types;
 
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestProgress;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
+import org.bukkit.Tag;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Event;
-import org.bukkit.event.entity.EntityDeathEvent;
-
-import java.util.List;
 
 /**
  * Quest type for killing mobs
  */
 public class KillMobQuest extends AbstractQuestType {
     
-    private final List<EntityType> allowedMobs;
-    private final boolean anyMob;
+    private final TargetMatcher<EntityType> allowedMobs;
     
     public KillMobQuest(Quest quest) {
         super(quest);
         
         ConfigurationSection config = quest.getTypeConfig();
-        if (config != null) {
-            List<String> mobNames = config.getStringList("mobs");
-            this.allowedMobs = mobNames.stream()
-                    .map(name -> {
-                        try {
-                            return EntityType.valueOf(name.toUpperCase());
-                        } catch (IllegalArgumentException e) {
-                            return null;
-                        }
-                    })
-                    .filter(type -> type != null)
-                    .toList();
-            
-            this.anyMob = config.getBoolean("any-mob", false);
+        if (config != null && !config.getBoolean("any-mob", false)) {
+            this.allowedMobs = TargetMatcher.compile(EntityType.class, config.getStringList("mobs"), entityType -> entityType != EntityType.PLAYER,
+                    name -> warnInvalidValue("mobs", name), Tag.REGISTRY_ENTITY_TYPES);
         } else {
-            this.allowedMobs = List.of();
-            this.anyMob = true;
+            this.allowedMobs = TargetMatcher.any(EntityType.class);
         }
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        if (!(event instanceof EntityDeathEvent deathEvent)) {
-            return 0;
-        }
-        
-        if (deathEvent.getEntity().getKiller() != player) {
-            return 0;
-        }
-        
-        EntityType entityType = deathEvent.getEntity().getType();
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
+        EntityType entityType = signal.getEntityType();
         
         // Don't count player kills for mob quests
         if (entityType == EntityType.PLAYER) {
@@ -59,7 +37,7 @@ public class KillMobQuest extends AbstractQuestType {
         }
         
         // Check if this mob type counts
-        if (anyMob || allowedMobs.isEmpty() || allowedMobs.contains(entityType)) {
+        if (allowedMobs.matches(entityType)) {
             return 1;
         }
         
@@ -68,16 +46,13 @@ public class KillMobQuest extends AbstractQuestType {
     
     @Override
     public String getProgressDescription() {
-        if (anyMob || allowedMobs.isEmpty()) {
+        if (allowedMobs.isMatchAny()) {
             return "Kill " + quest.getTarget() + " mobs";
-        } else if (allowedMobs.size() == 1) {
-            return "Kill " + quest.getTarget() + " " + allowedMobs.get(0).name().toLowerCase().replace("_", " ");
+        } else if (allowedMobs.getDisplayNames().size() == 1) {
+            return "Kill " + quest.getTarget() + " " + allowedMobs.getDisplayNames().get(0);
         } else {
             return "Kill " + quest.getTarget() + " of: " + 
-                   allowedMobs.stream()
-                           .map(m -> m.name().toLowerCase().replace("_", " "))
-                           .reduce((a, b) -> a + ", " + b)
-                           .orElse("mobs");
+                   String.join(", ", allowedMobs.getDisplayNames());
         }
     }
 }
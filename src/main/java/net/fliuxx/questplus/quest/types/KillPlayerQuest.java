@@ -1,10 +1,10 @@
 package net.fliuxx.questplus.quest.types;
 
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestProgress;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Event;
-import org.bukkit.event.entity.EntityDeathEvent;
 
 /**
  * Quest type for killing players
@@ -16,21 +16,9 @@ public class KillPlayerQuest extends AbstractQuestType {
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        if (!(event instanceof EntityDeathEvent deathEvent)) {
-            return 0;
-        }
-        
-        if (deathEvent.getEntity().getType() != EntityType.PLAYER) {
-            return 0;
-        }
-        
-        if (deathEvent.getEntity().getKiller() != player) {
-            return 0;
-        }
-        
-        // Don't allow self-kills
-        if (deathEvent.getEntity().equals(player)) {
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
+        // Self-kills never produce a kill signal
+        if (signal.getEntityType() != EntityType.PLAYER) {
             return 0;
         }
         
@@ -1,11 +1,11 @@
 package net.fliuxx.questplus.quest.types;
 
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestProgress;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
 import org.bukkit.Location;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Event;
-import org.bukkit.event.player.PlayerMoveEvent;
 
 /**
  * Quest type for reaching a specific altitude
@@ -26,16 +26,8 @@ public class ReachAltitudeQuest extends AbstractQuestType {
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        if (!(event instanceof PlayerMoveEvent moveEvent)) {
-            return 0;
-        }
-        
-        Location to = moveEvent.getTo();
-        if (to == null) {
-            return 0;
-        }
-        
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
+        Location to = signal.getLocation();
         if (to.getY() >= targetAltitude) {
             return 1; // Quest completed
         }
@@ -0,0 +1,125 @@
+package net.fliuxx.questplus.quest.types;
+
+import net.fliuxx.questplus.QuestPlus;
+import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestManager;
+import net.fliuxx.questplus.quest.QuestProgress;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Single timer driving every survive quest.
+ * Participants are kept in parallel arrays and each one is checked once per second;
+ * the second is split into 20 slots so a large number of participants is spread
+ * across ticks instead of being checked all at once.
+ */
+public class SurvivalTicker {
+    
+    private static final int TICKS_PER_SECOND = 20;
+    
+    private final QuestPlus plugin;
+    private final Set<QuestProgress> tracked; // Main thread only
+    private Player[] players;
+    private QuestProgress[] progresses;
+    private int[] seconds;
+    private int size;
+    private int slot;
+    
+    public SurvivalTicker(QuestPlus plugin) {
+        this.plugin = plugin;
+        this.tracked = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.players = new Player[16];
+        this.progresses = new QuestProgress[16];
+        this.seconds = new int[16];
+        
+        startTickTask();
+    }
+    
+    /**
+     * Starts or resumes the survival timer of a quest, from its persisted seconds survived
+     * @param player The player
+     * @param progress The player's survive quest progress
+     */
+    public void track(Player player, QuestProgress progress) {
+        if (!tracked.add(progress)) {
+            // A quick rejoin reuses the retained progress with a new player instance
+            for (int i = 0; i < size; i++) {
+                if (progresses[i] == progress) {
+                    players[i] = player;
+                    return;
+                }
+            }
+            return;
+        }
+        
+        if (size == players.length) {
+            players = Arrays.copyOf(players, size * 2);
+            progresses = Arrays.copyOf(progresses, size * 2);
+            seconds = Arrays.copyOf(seconds, size * 2);
+        }
+        
+        players[size] = player;
+        progresses[size] = progress;
+        seconds[size] = progress.getInt(SurviveQuest.SECONDS_SURVIVED);
+        size++;
+    }
+    
+    private void startTickTask() {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                // Drop finished participants once per second so every slot keeps its participants
+                if (slot == 0) {
+                    compact();
+                }
+                
+                for (int i = slot; i < size; i += TICKS_PER_SECOND) {
+                    tick(i);
+                }
+                slot = (slot + 1) % TICKS_PER_SECOND;
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    private void tick(int index) {
+        Player player = players[index];
+        QuestProgress progress = progresses[index];
+        if (player == null) return;
+        
+        QuestManager questManager = plugin.getQuestManager();
+        Quest quest = questManager.getQuest(progress.getQuestOrdinal());
+        
+        // Stop once the player left or the quest was completed, abandoned, expired or reloaded away
+        if (!player.isOnline() || progress.isCompleted() || progress.getProgress() >= progress.getTarget()
+                || quest == null || !(quest.getHandler() instanceof SurviveQuest surviveQuest)
+                || !questManager.getPlayerState(player).contains(progress)) {
+            tracked.remove(progress);
+            players[index] = null;
+            progresses[index] = null;
+            return;
+        }
+        
+        seconds[index] = surviveQuest.tick(player, progress, seconds[index]);
+    }
+    
+    private void compact() {
+        int target = 0;
+        for (int i = 0; i < size; i++) {
+            if (players[i] == null) continue;
+            
+            players[target] = players[i];
+            progresses[target] = progresses[i];
+            seconds[target] = seconds[i];
+            target++;
+        }
+        
+        Arrays.fill(players, target, size, null);
+        Arrays.fill(progresses, target, size, null);
+        size = target;
+    }
+}
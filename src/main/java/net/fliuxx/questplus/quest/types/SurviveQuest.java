@@ -3,16 +3,14 @@ package net.fliuxx.questplus.quest.types;
 import net.fliuxx.questplus.QuestPlus;
 import net.fliuxx.questplus.quest.Quest;
 import net.fliuxx.questplus.quest.QuestProgress;
-import org.bukkit.Bukkit;
+import net.fliuxx.questplus.quest.data.DataSchema;
+import net.fliuxx.questplus.quest.data.DataSlot;
+import net.fliuxx.questplus.quest.region.QuestRegion;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
 import org.bukkit.Location;
 import org.bukkit.block.Biome;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Event;
-import org.bukkit.event.entity.EntityDamageEvent;
-import org.bukkit.event.entity.FoodLevelChangeEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.List;
 
@@ -21,12 +19,14 @@ import java.util.List;
  */
 public class SurviveQuest extends AbstractQuestType {
     
+    static final DataSchema DATA = new DataSchema();
+    static final DataSlot SECONDS_SURVIVED = DATA.intSlot(1, "seconds_survived");
+    
     private final int survivalTimeSeconds;
     private final double minHealth;
     private final int minFoodLevel;
     private final List<Biome> requiredBiomes;
-    private final Location requiredLocation;
-    private final double locationRadius;
+    private final QuestRegion requiredRegion;
     
     public SurviveQuest(Quest quest) {
         super(quest);
@@ -43,6 +43,7 @@ public class SurviveQuest extends AbstractQuestType {
                         try {
                             return Biome.valueOf(name.toUpperCase());
                         } catch (IllegalArgumentException e) {
+                            warnInvalidValue("biomes", name);
                             return null;
                         }
                     })
@@ -51,81 +52,63 @@ public class SurviveQuest extends AbstractQuestType {
             
             if (config.contains("location")) {
                 ConfigurationSection locConfig = config.getConfigurationSection("location");
-                String worldName = locConfig.getString("world");
-                double x = locConfig.getDouble("x");
-                double y = locConfig.getDouble("y");
-                double z = locConfig.getDouble("z");
-                this.locationRadius = locConfig.getDouble("radius", 50.0);
-                this.requiredLocation = new Location(Bukkit.getWorld(worldName), x, y, z);
+                this.requiredRegion = new QuestRegion(quest.getId(), locConfig.getString("world"),
+                        locConfig.getDouble("x"), locConfig.getDouble("y"), locConfig.getDouble("z"),
+                        false, locConfig.getDouble("radius", 50.0));
             } else {
-                this.requiredLocation = null;
-                this.locationRadius = 0;
+                this.requiredRegion = null;
             }
         } else {
             this.survivalTimeSeconds = 300;
             this.minHealth = 1.0;
             this.minFoodLevel = 0;
             this.requiredBiomes = List.of();
-            this.requiredLocation = null;
-            this.locationRadius = 0;
+            this.requiredRegion = null;
         }
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        // This quest uses a timer-based approach, not event-based
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
+        // This quest uses a timer-based approach, not signal-based
         return 0;
     }
     
     @Override
-    public void onQuestAccepted(Player player) {
-        startSurvivalTimer(player);
+    public void onQuestAccepted(Player player, QuestProgress progress) {
+        QuestPlus.getInstance().getSurvivalTicker().track(player, progress);
     }
     
-    private void startSurvivalTimer(Player player) {
-        new BukkitRunnable() {
-            int secondsPassed = 0;
-            
-            @Override
-            public void run() {
-                if (!player.isOnline()) {
-                    this.cancel();
-                    return;
-                }
-                
-                QuestProgress progress = QuestPlus.getInstance().getQuestManager()
-                        .getPlayerProgress(player).stream()
-                        .filter(p -> p.getQuestId().equals(quest.getId()) && !p.isCompleted())
-                        .findFirst()
-                        .orElse(null);
-                
-                if (progress == null) {
-                    this.cancel();
-                    return;
-                }
-                
-                // Check survival conditions
-                if (!checkSurvivalConditions(player)) {
-                    // Player failed to meet survival conditions, reset timer
-                    secondsPassed = 0;
-                    progress.setData("seconds_survived", 0);
-                    return;
-                }
-                
-                secondsPassed++;
-                progress.setData("seconds_survived", secondsPassed);
-                
-                // Update progress (progress is based on time)
-                int newProgress = (secondsPassed * quest.getTarget()) / survivalTimeSeconds;
-                progress.setProgress(Math.min(newProgress, quest.getTarget()));
-                
-                if (secondsPassed >= survivalTimeSeconds) {
-                    progress.setProgress(quest.getTarget());
-                    QuestPlus.getInstance().getQuestManager().updateQuestProgress(player, quest.getId(), 0);
-                    this.cancel();
-                }
-            }
-        }.runTaskTimer(QuestPlus.getInstance(), 20L, 20L); // Run every second
+    @Override
+    public void onProgressLoaded(Player player, QuestProgress progress) {
+        // Resume the timer after a rejoin or restart
+        QuestPlus.getInstance().getSurvivalTicker().track(player, progress);
+    }
+    
+    /**
+     * Advances the survival timer by one second, called by the shared {@link SurvivalTicker}
+     * @return The new number of seconds survived
+     */
+    int tick(Player player, QuestProgress progress, int secondsPassed) {
+        // Check survival conditions
+        if (!checkSurvivalConditions(player)) {
+            // Player failed to meet survival conditions, reset timer
+            progress.setInt(SECONDS_SURVIVED, 0);
+            return 0;
+        }
+        
+        secondsPassed++;
+        progress.setInt(SECONDS_SURVIVED, secondsPassed);
+        
+        // Update progress (progress is based on time)
+        int newProgress = (secondsPassed * quest.getTarget()) / survivalTimeSeconds;
+        progress.setProgress(Math.min(newProgress, quest.getTarget()));
+        
+        if (secondsPassed >= survivalTimeSeconds) {
+            progress.setProgress(quest.getTarget());
+            QuestPlus.getInstance().getQuestManager().updateQuestProgress(player, quest.getId(), 0);
+        }
+        
+        return secondsPassed;
     }
     
     private boolean checkSurvivalConditions(Player player) {
@@ -148,15 +131,8 @@ public class SurviveQuest extends AbstractQuestType {
         }
         
         // Check location
-        if (requiredLocation != null) {
-            if (!player.getWorld().equals(requiredLocation.getWorld())) {
-                return false;
-            }
-            
-            double distance = player.getLocation().distance(requiredLocation);
-            if (distance > locationRadius) {
-                return false;
-            }
+        if (requiredRegion != null && !requiredRegion.contains(player.getLocation())) {
+            return false;
         }
         
         return true;
@@ -182,9 +158,9 @@ public class SurviveQuest extends AbstractQuestType {
                     .orElse(""));
         }
         
-        if (requiredLocation != null) {
+        if (requiredRegion != null) {
             desc.append(" near ").append(String.format("%.0f, %.0f, %.0f", 
-                    requiredLocation.getX(), requiredLocation.getY(), requiredLocation.getZ()));
+                    requiredRegion.getX(), requiredRegion.getY(), requiredRegion.getZ()));
         }
         
         return desc.toString();
@@ -0,0 +1,127 @@
+package net.fliuxx.questplus.quest.types;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Keyed;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Compiled set of materials or entity types a quest accepts.
+ * Entries are resolved once at load time, tags ("#logs", "#minecraft:coal_ores")
+ * are expanded into their values, and matching is a single EnumSet lookup.
+ */
+public final class TargetMatcher<E extends Enum<E> & Keyed> {
+    
+    private final EnumSet<E> values;
+    private final List<String> displayNames;
+    private final boolean matchAny;
+    
+    private TargetMatcher(EnumSet<E> values, List<String> displayNames, boolean matchAny) {
+        this.values = values;
+        this.displayNames = List.copyOf(displayNames);
+        this.matchAny = matchAny;
+    }
+    
+    /**
+     * Compiles configured entries into a matcher
+     * @param type The enum class of the values
+     * @param entries Configured names, tags are prefixed with '#'
+     * @param filter Values that are allowed at all (e.g. only blocks)
+     * @param onInvalid Receives every entry that could not be resolved
+     * @param tagRegistries Tag registries searched in order for '#' entries
+     * @return The compiled matcher, matching anything when no entry resolved
+     */
+    public static <E extends Enum<E> & Keyed> TargetMatcher<E> compile(Class<E> type, List<String> entries, Predicate<E> filter,
+                                                                       Consumer<String> onInvalid, String... tagRegistries) {
+        EnumSet<E> values = EnumSet.noneOf(type);
+        List<String> displayNames = new ArrayList<>();
+        
+        for (String entry : entries) {
+            if (entry.startsWith("#")) {
+                Tag<E> tag = resolveTag(type, entry.substring(1), tagRegistries);
+                if (tag == null) {
+                    onInvalid.accept(entry);
+                    continue;
+                }
+                
+                int before = values.size();
+                for (E value : tag.getValues()) {
+                    if (filter.test(value)) {
+                        values.add(value);
+                    }
+                }
+                
+                if (values.size() == before) {
+                    onInvalid.accept(entry);
+                    continue;
+                }
+                displayNames.add(tag.getKey().getKey().replace("_", " "));
+            } else {
+                E value;
+                try {
+                    value = Enum.valueOf(type, entry.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    onInvalid.accept(entry);
+                    continue;
+                }
+                
+                if (!filter.test(value)) {
+                    onInvalid.accept(entry);
+                    continue;
+                }
+                
+                values.add(value);
+                displayNames.add(value.name().toLowerCase(Locale.ROOT).replace("_", " "));
+            }
+        }
+        
+        return new TargetMatcher<>(values, displayNames, values.isEmpty());
+    }
+    
+    /**
+     * Creates a matcher that accepts every value
+     */
+    public static <E extends Enum<E> & Keyed> TargetMatcher<E> any(Class<E> type) {
+        return new TargetMatcher<>(EnumSet.noneOf(type), List.of(), true);
+    }
+    
+    private static <E extends Enum<E> & Keyed> Tag<E> resolveTag(Class<E> type, String name, String... tagRegistries) {
+        NamespacedKey key = name.contains(":")
+                ? NamespacedKey.fromString(name.toLowerCase(Locale.ROOT))
+                : NamespacedKey.minecraft(name.toLowerCase(Locale.ROOT));
+        if (key == null) {
+            return null;
+        }
+        
+        for (String registry : tagRegistries) {
+            Tag<E> tag = Bukkit.getTag(registry, key, type);
+            if (tag != null) {
+                return tag;
+            }
+        }
+        
+        return null;
+    }
+    
+    public boolean matches(E value) {
+        return matchAny || values.contains(value);
+    }
+    
+    public boolean isMatchAny() {
+        return matchAny;
+    }
+    
+    /**
+     * Gets the configured entries in readable form, tags listed by their name
+     */
+    public List<String> getDisplayNames() {
+        return displayNames;
+    }
+}
@@ -2,11 +2,15 @@ package net.fliuxx.questplus.quest.types;
 
 import net.fliuxx.questplus.quest.Quest;
 import net.fliuxx.questplus.quest.QuestProgress;
-import org.bukkit.Location;
+import net.fliuxx.questplus.quest.data.DataSchema;
+import net.fliuxx.questplus.quest.data.DataSlot;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
+import net.fliuxx.questplus.quest.signal.SignalKind;
+import org.bukkit.Statistic;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Event;
-import org.bukkit.event.player.PlayerMoveEvent;
+
+import java.util.Set;
 
 /**
  * Quest type for traveling a certain distance
@@ -17,7 +21,35 @@ public class TravelQuest extends AbstractQuestType {
         WALK, SWIM, FLY, ANY
     }
     
+    public enum Source {
+        MOVEMENT, // Distances aggregated by the movement tracker
+        STATISTICS // Deltas of the vanilla distance statistics, no per-move work
+    }
+    
+    private static final DataSchema DATA = new DataSchema();
+    private static final DataSlot LAST_STATISTIC = DATA.longSlot(1, "last_statistic");
+    
+    // The movement tracker measures walking in three dimensions, so climbing and falling count too
+    private static final Statistic[] WALK_STATISTICS = {
+            Statistic.WALK_ONE_CM, Statistic.SPRINT_ONE_CM, Statistic.CROUCH_ONE_CM,
+            Statistic.CLIMB_ONE_CM, Statistic.FALL_ONE_CM
+    };
+    private static final Statistic[] SWIM_STATISTICS = {
+            Statistic.SWIM_ONE_CM, Statistic.WALK_ON_WATER_ONE_CM, Statistic.WALK_UNDER_WATER_ONE_CM
+    };
+    private static final Statistic[] FLY_STATISTICS = {
+            Statistic.FLY_ONE_CM, Statistic.AVIATE_ONE_CM
+    };
+    private static final Statistic[] ANY_STATISTICS = {
+            Statistic.WALK_ONE_CM, Statistic.SPRINT_ONE_CM, Statistic.CROUCH_ONE_CM,
+            Statistic.CLIMB_ONE_CM, Statistic.FALL_ONE_CM,
+            Statistic.SWIM_ONE_CM, Statistic.WALK_ON_WATER_ONE_CM, Statistic.WALK_UNDER_WATER_ONE_CM,
+            Statistic.FLY_ONE_CM, Statistic.AVIATE_ONE_CM
+    };
+    
     private final TravelType travelType;
+    private final Source source;
+    private final Statistic[] statistics;
     private final double targetDistance;
     
     public TravelQuest(Quest quest) {
@@ -25,6 +57,7 @@ public class TravelQuest extends AbstractQuestType {
         
         ConfigurationSection config = quest.getTypeConfig();
         TravelType tempTravelType;
+        Source tempSource;
         double tempDistance;
         
         if (config != null) {
@@ -32,49 +65,88 @@ public class TravelQuest extends AbstractQuestType {
             try {
                 tempTravelType = TravelType.valueOf(typeString);
             } catch (IllegalArgumentException e) {
+                warnInvalidValue("type", typeString);
                 tempTravelType = TravelType.ANY;
             }
+            
+            String sourceString = config.getString("source", "MOVEMENT").toUpperCase();
+            try {
+                tempSource = Source.valueOf(sourceString);
+            } catch (IllegalArgumentException e) {
+                warnInvalidValue("source", sourceString);
+                tempSource = Source.MOVEMENT;
+            }
             tempDistance = config.getDouble("distance", quest.getTarget());
         } else {
             tempTravelType = TravelType.ANY;
+            tempSource = Source.MOVEMENT;
             tempDistance = quest.getTarget();
         }
         
         this.travelType = tempTravelType;
+        this.source = tempSource;
+        this.statistics = switch (tempTravelType) {
+            case WALK -> WALK_STATISTICS;
+            case SWIM -> SWIM_STATISTICS;
+            case FLY -> FLY_STATISTICS;
+            case ANY -> ANY_STATISTICS;
+        };
         this.targetDistance = tempDistance;
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        if (!(event instanceof PlayerMoveEvent moveEvent)) {
-            return 0;
+    public Set<SignalKind> getSignalKinds() {
+        if (source == Source.STATISTICS) {
+            return Set.of(SignalKind.STATISTIC_POLL);
         }
         
-        Location from = moveEvent.getFrom();
-        Location to = moveEvent.getTo();
-        if (to == null) {
-            return 0;
+        // Movement distances are flushed per travel mode, only subscribe to the ones that count
+        return switch (travelType) {
+            case WALK -> Set.of(SignalKind.TRAVEL_WALK);
+            case SWIM -> Set.of(SignalKind.TRAVEL_SWIM);
+            case FLY -> Set.of(SignalKind.TRAVEL_FLY);
+            case ANY -> Set.of(SignalKind.TRAVEL_WALK, SignalKind.TRAVEL_SWIM, SignalKind.TRAVEL_FLY);
+        };
+    }
+    
+    @Override
+    public void onQuestAccepted(Player player, QuestProgress progress) {
+        if (source == Source.STATISTICS) {
+            progress.setLong(LAST_STATISTIC, readStatistics(player));
+        }
+    }
+    
+    @Override
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
+        if (signal.getKind() == SignalKind.STATISTIC_POLL) {
+            return checkStatistics(player, progress);
         }
         
-        // Calculate distance moved
-        double distance = from.distance(to);
+        // Distances are already aggregated per travel mode by the movement tracker, in centimeters
+        return signal.getAmount();
+    }
+    
+    private int checkStatistics(Player player, QuestProgress progress) {
+        long current = readStatistics(player);
+        boolean tracked = progress.hasData(LAST_STATISTIC);
+        long last = progress.getLong(LAST_STATISTIC);
+        progress.setLong(LAST_STATISTIC, current);
         
-        // Check travel type
-        if (!isValidTravelType(player, from, to)) {
+        // Progress from before statistics were tracked, or statistics were reset
+        if (!tracked || current < last) {
             return 0;
         }
         
-        // Return distance as progress (will be accumulated)
-        return (int) (distance * 100); // Convert to centimeters for precision
+        // Statistics are already in centimeters
+        return (int) Math.min(Integer.MAX_VALUE, current - last);
     }
     
-    private boolean isValidTravelType(Player player, Location from, Location to) {
-        return switch (travelType) {
-            case WALK -> !player.isSwimming() && !player.isGliding() && !player.isFlying();
-            case SWIM -> player.isSwimming();
-            case FLY -> player.isGliding() || player.isFlying();
-            case ANY -> true;
-        };
+    private long readStatistics(Player player) {
+        long total = 0;
+        for (Statistic statistic : statistics) {
+            total += player.getStatistic(statistic);
+        }
+        return total;
     }
     
     @Override
@@ -1,11 +1,10 @@
 package net.fliuxx.questplus.quest.types;
 
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestProgress;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
-import org.bukkit.entity.Villager;
-import org.bukkit.event.Event;
-import org.bukkit.event.player.PlayerInteractEntityEvent;
 
 /**
  * Quest type for interacting with villagers
@@ -17,16 +16,8 @@ public class VillagerInteractQuest extends AbstractQuestType {
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        if (!(event instanceof PlayerInteractEntityEvent interactEvent)) {
-            return 0;
-        }
-        
-        if (interactEvent.getPlayer() != player) {
-            return 0;
-        }
-        
-        if (interactEvent.getRightClicked().getType() == EntityType.VILLAGER) {
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
+        if (signal.getEntityType() == EntityType.VILLAGER) {
             return 1;
         }
         
@@ -1,11 +1,10 @@
 package net.fliuxx.questplus.quest.types;
 
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestProgress;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
-import org.bukkit.entity.Villager;
-import org.bukkit.event.Event;
-import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.inventory.MerchantInventory;
 
 /**
  * Quest type for trading with villagers
@@ -17,25 +16,10 @@ public class VillagerTradeQuest extends AbstractQuestType {
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        if (!(event instanceof InventoryClickEvent clickEvent)) {
-            return 0;
-        }
-        
-        if (clickEvent.getWhoClicked() != player) {
-            return 0;
-        }
-        
-        if (!(clickEvent.getInventory() instanceof MerchantInventory merchantInventory)) {
-            return 0;
-        }
-        
-        // Check if it's a villager trade
-        if (merchantInventory.getMerchant() instanceof Villager) {
-            // Check if player is taking the result item (completing a trade)
-            if (clickEvent.getSlot() == 2 && clickEvent.getCurrentItem() != null) {
-                return 1;
-            }
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
+        // Check if it's a villager trade, wandering traders don't count
+        if (signal.getEntityType() == EntityType.VILLAGER) {
+            return 1;
         }
         
         return 0;
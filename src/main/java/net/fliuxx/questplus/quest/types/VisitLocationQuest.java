@@ -1,15 +1,17 @@
 package net.fliuxx.questplus.quest.types;
 
 import net.fliuxx.questplus.quest.Quest;
+import net.fliuxx.questplus.quest.QuestProgress;
+import net.fliuxx.questplus.quest.region.QuestRegion;
+import net.fliuxx.questplus.quest.signal.QuestSignal;
+import net.fliuxx.questplus.quest.signal.SignalKind;
 import org.bukkit.Location;
-import org.bukkit.World;
 import org.bukkit.block.Biome;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
-import org.bukkit.event.Event;
-import org.bukkit.event.player.PlayerMoveEvent;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Quest type for visiting specific locations or biomes
@@ -23,6 +25,7 @@ public class VisitLocationQuest extends AbstractQuestType {
     private final double radius;
     private final List<Biome> targetBiomes;
     private final boolean isBiomeQuest;
+    private final QuestRegion region;
     
     public VisitLocationQuest(Quest quest) {
         super(quest);
@@ -41,6 +44,7 @@ public class VisitLocationQuest extends AbstractQuestType {
                         try {
                             return Biome.valueOf(name.toUpperCase());
                         } catch (IllegalArgumentException e) {
+                            warnInvalidValue("biomes", name);
                             return null;
                         }
                     })
@@ -57,28 +61,38 @@ public class VisitLocationQuest extends AbstractQuestType {
             this.targetBiomes = List.of();
             this.isBiomeQuest = false;
         }
+        
+        this.region = isBiomeQuest ? null
+                : new QuestRegion(quest.getId(), targetWorld, targetX, targetY, targetZ, targetY == -1, radius);
     }
     
     @Override
-    public int checkProgress(Player player, Event event) {
-        if (!(event instanceof PlayerMoveEvent moveEvent)) {
-            return 0;
+    public Set<SignalKind> getSignalKinds() {
+        // Coordinate visits are resolved through the region index instead of every move
+        return isBiomeQuest ? Set.of(SignalKind.MOVE) : Set.of(SignalKind.REGION_ENTER);
+    }
+    
+    @Override
+    public QuestRegion getRegion() {
+        return region;
+    }
+    
+    @Override
+    public int checkProgress(Player player, QuestProgress progress, QuestSignal signal) {
+        if (signal.getKind() == SignalKind.REGION_ENTER) {
+            return signal.getRegion() == region ? 1 : 0; // Quest completed
         }
         
         // Only check if player actually moved to a different block
-        Location from = moveEvent.getFrom();
-        Location to = moveEvent.getTo();
-        if (to == null || (from.getBlockX() == to.getBlockX() && 
+        Location from = signal.getOrigin();
+        Location to = signal.getLocation();
+        if ((from.getBlockX() == to.getBlockX() && 
                           from.getBlockY() == to.getBlockY() && 
                           from.getBlockZ() == to.getBlockZ())) {
             return 0;
         }
         
-        if (isBiomeQuest) {
-            return checkBiomeVisit(player, to);
-        } else {
-            return checkLocationVisit(player, to);
-        }
+        return checkBiomeVisit(player, to);
     }
     
     private int checkBiomeVisit(Player player, Location location) {
@@ -91,23 +105,6 @@ public class VisitLocationQuest extends AbstractQuestType {
         return 0;
     }
     
-    private int checkLocationVisit(Player player, Location location) {
-        // Check world
-        if (targetWorld != null && !targetWorld.equals(location.getWorld().getName())) {
-            return 0;
-        }
-        
-        // Check coordinates
-        double distance = location.distance(new Location(
-                location.getWorld(), targetX, targetY == -1 ? location.getY() : targetY, targetZ));
-        
-        if (distance <= radius) {
-            return 1; // Quest completed
-        }
-        
-        return 0;
-    }
-    
     @Override
     public String getProgressDescription() {
         if (isBiomeQuest) {
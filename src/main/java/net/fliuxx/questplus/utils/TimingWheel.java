@@ -0,0 +1,159 @@
+package net.fliuxx.questplus.utils;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel with O(1) schedule and cancel.
+ * Four levels of 64 slots cover 64^4 ticks; a timeout is placed on the coarsest level that
+ * fits its delay and cascades down to finer levels as time advances. Deadlines further away
+ * than the wheel covers wait in the outermost level and are re-placed until due.
+ * Not thread-safe, callers must confine a wheel to one thread.
+ * @param <T> Type of the value carried by each timeout
+ */
+public class TimingWheel<T> {
+    
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+    
+    private final long tickMillis;
+    private final long startMillis;
+    private final Timeout<T>[][] wheels;
+    private long currentTick;
+    
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.wheels = new Timeout[LEVELS][SLOTS];
+        
+        // Each slot is a circular doubly linked list around a sentinel
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Timeout<T> sentinel = new Timeout<>(null, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                wheels[level][slot] = sentinel;
+            }
+        }
+    }
+    
+    /**
+     * Schedules a value to fire at the given time, rounded up to the next tick
+     * @param value The value handed back when the timeout fires
+     * @param deadlineMillis Wall clock time in milliseconds
+     * @return Handle that can be cancelled
+     */
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        
+        // The current tick's slot has already fired, overdue timeouts fire on the next one
+        Timeout<T> timeout = new Timeout<>(value, Math.max(deadlineTick, currentTick + 1));
+        place(timeout);
+        return timeout;
+    }
+    
+    /**
+     * Cancels a timeout, does nothing if it already fired or was cancelled
+     * @param timeout The handle returned by {@link #schedule(Object, long)}
+     */
+    public void cancel(Timeout<T> timeout) {
+        timeout.unlink();
+    }
+    
+    /**
+     * Advances the wheel to the given time, firing every timeout that became due
+     * @param nowMillis Wall clock time in milliseconds
+     * @param expired Receives the value of each fired timeout, in deadline order
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            
+            Timeout<T> sentinel = wheels[0][(int) (currentTick & SLOT_MASK)];
+            while (sentinel.next != sentinel) {
+                Timeout<T> timeout = sentinel.next;
+                timeout.unlink();
+                
+                if (timeout.deadlineTick > currentTick) {
+                    place(timeout); // Clamped beyond the wheel's range, not due yet
+                } else {
+                    expired.accept(timeout.value);
+                }
+            }
+        }
+    }
+    
+    private void cascade(int level) {
+        // A level's slot is due when every finer level has wrapped around
+        if (level >= LEVELS || (currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+            return;
+        }
+        
+        cascade(level + 1);
+        
+        Timeout<T> sentinel = wheels[level][(int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK)];
+        while (sentinel.next != sentinel) {
+            Timeout<T> timeout = sentinel.next;
+            timeout.unlink();
+            place(timeout);
+        }
+    }
+    
+    private void place(Timeout<T> timeout) {
+        long delay = Math.min(timeout.deadlineTick - currentTick, MAX_DELAY_TICKS);
+        long tick = currentTick + delay;
+        
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        
+        timeout.linkBefore(wheels[level][(int) ((tick >> (SLOT_BITS * level)) & SLOT_MASK)]);
+    }
+    
+    /**
+     * Handle to a scheduled value
+     */
+    public static final class Timeout<T> {
+        
+        private final T value;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+        
+        public T getValue() {
+            return value;
+        }
+        
+        public boolean isPending() {
+            return next != null;
+        }
+        
+        private void linkBefore(Timeout<T> sentinel) {
+            prev = sentinel.prev;
+            next = sentinel;
+            sentinel.prev.next = this;
+            sentinel.prev = this;
+        }
+        
+        private void unlink() {
+            if (next == null) return;
+            
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}